@@ -1,12 +1,15 @@
 package edu.wou.cs361.minesweeper;
 
 import edu.wou.cs361.minesweeper.game.Game;
+import edu.wou.cs361.minesweeper.game.GameJournal;
 import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.metrics.GameMetrics;
 import edu.wou.cs361.minesweeper.ui.CustomMenu;
 import edu.wou.cs361.minesweeper.ui.Help;
 import edu.wou.cs361.minesweeper.ui.MainUI;
 
 import javax.swing.*;
+import java.io.IOException;
 
 /**
  * Main launcher class for Minesweeper, containing all the menus and general
@@ -22,6 +25,9 @@ public class Startup {
      * @param args Default args (unused)
      */
     public static void main(String[] args) {
+        // keep setting up the flight recorder off the first click
+        GameMetrics.preloadEvents();
+
         // High DPI stuff
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -33,8 +39,30 @@ public class Startup {
         // this has a side effect of loading the icons for the pieces
         Help.load();
 
-        // start the edu.wou.cs361.minesweeper.game on easy
-        newGame(Difficulty.EASY);
+        // pick up a game left unfinished by a crash or exit, otherwise start on easy
+        var recovered = recoverGame();
+        if (recovered != null) {
+            startGame(recovered, true);
+        } else {
+            newGame(Difficulty.EASY);
+        }
+    }
+
+    /**
+     * Rebuilds the autosaved game, if it was still being played
+     *
+     * @return the recovered game, or null if there is none to continue
+     */
+    public static IGame recoverGame() {
+        try {
+            var game = GameJournal.recover(GameJournal.defaultDirectory());
+            if (game != null && !game.gameOver()) {
+                return game;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
     }
 
     /**
@@ -89,6 +117,16 @@ public class Startup {
      * @param board Game board to start
      */
     public static void startGame(IGame board) {
+        startGame(board, false);
+    }
+
+    /**
+     * Starts a game with the specified board
+     *
+     * @param board    Game board to start
+     * @param restored Whether the board was loaded or recovered, which keeps it out of the statistics
+     */
+    public static void startGame(IGame board, boolean restored) {
         // must be a valid board
         if (board != null) {
             // remove the current gui and define the new one
@@ -97,7 +135,7 @@ public class Startup {
             }
 
             // create a new instance
-            gui = new MainUI(board);
+            gui = new MainUI(board, restored);
         }
     }
 
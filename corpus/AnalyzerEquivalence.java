@@ -0,0 +1,189 @@
+package edu.wou.cs361.minesweeper.corpus;
+
+import edu.wou.cs361.minesweeper.game.BoardAnalysis;
+import edu.wou.cs361.minesweeper.game.BoardAnalyzer;
+import edu.wou.cs361.minesweeper.game.Topology;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Command line check that {@link BoardAnalyzer} rates boards the way a plain
+ * flood fill does
+ * <br>
+ * Each random minefield is rated by the analyzer and again by flood filling
+ * every opening from the neighbors worked out by coordinates, then counting
+ * the numbers no opening touches. The 3BV, openings, isolated numbers and
+ * safe spaces must all agree, for the padded square analyzer and the table
+ * analyzer on every topology. The same seed always checks the same boards.
+ * <pre>
+ * AnalyzerEquivalence [boards] [seed]
+ * </pre>
+ */
+public class AnalyzerEquivalence {
+    /**
+     * Runs the check
+     *
+     * @param args Optional number of boards and seed
+     */
+    public static void main(String[] args) {
+        var boards = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        var seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        var problem = check(boards, seed);
+        System.out.println(problem == null ? "ok      " + boards + " boards" : "FAILED  " + problem);
+        if (problem != null) {
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Compares the analyzer with a flood fill on random boards
+     *
+     * @param boards Number of boards to check
+     * @param seed   Seed of the random boards
+     * @return what differs, or null if everything matches
+     */
+    public static String check(int boards, long seed) {
+        var random = new SplittableRandom(seed);
+        var topologies = Topology.values();
+        for (var board = 0; board < boards; board++) {
+            var width = 1 + random.nextInt(60);
+            var height = 1 + random.nextInt(40);
+            // from empty boards to nearly full ones, openings and islands both come up
+            var density = random.nextDouble() * random.nextDouble();
+            var mines = new boolean[height][width];
+            var flat = new boolean[width * height];
+            for (var y = 0; y < height; y++) {
+                for (var x = 0; x < width; x++) {
+                    mines[y][x] = random.nextDouble() < density;
+                    flat[y * width + x] = mines[y][x];
+                }
+            }
+
+            var name = "board " + board + " (" + width + "x" + height + ")";
+            var analyzer = new BoardAnalyzer(width, height);
+            var square = floodFill(mines, Topology.SQUARE);
+            var problem = compare(analyzer.analyze(mines), square);
+            if (problem == null) {
+                problem = compare(analyzer.analyze(flat), square);
+            }
+            if (problem != null) {
+                return name + ": " + problem;
+            }
+            for (var topology : topologies) {
+                problem = compare(BoardAnalyzer.analyze(mines, topology.table(width, height)),
+                        floodFill(mines, topology));
+                if (problem != null) {
+                    return name + " " + topology + ": " + problem;
+                }
+            }
+        }
+        return null;
+    }
+
+    /* Internal use */
+
+    private static String compare(BoardAnalysis actual, int[] expected) {
+        if (actual.getBoardValue() != expected[0] || actual.getOpenings() != expected[1]
+                || actual.getIsolatedNumbers() != expected[2] || actual.getSafeSpaces() != expected[3]) {
+            return "analyzer gave " + actual + ", flood fill gave 3BV " + expected[0] + " openings " + expected[1]
+                    + " isolated " + expected[2] + " safe " + expected[3];
+        }
+        return null;
+    }
+
+    /**
+     * Rates a board by flood filling its openings
+     *
+     * @return 3BV, openings, isolated numbers and safe spaces
+     */
+    private static int[] floodFill(boolean[][] mines, Topology topology) {
+        var height = mines.length;
+        var width = mines[0].length;
+        var numbers = new int[width * height];
+        for (var index = 0; index < numbers.length; index++) {
+            for (var neighbor : neighbors(index % width, index / width, width, height, topology)) {
+                if (mines[neighbor / width][neighbor % width]) {
+                    numbers[index]++;
+                }
+            }
+        }
+
+        var opened = new boolean[numbers.length];
+        var openings = 0;
+        var safe = 0;
+        var pending = new ArrayDeque<Integer>();
+        for (var index = 0; index < numbers.length; index++) {
+            if (mines[index / width][index % width]) {
+                continue;
+            }
+            safe++;
+            if (numbers[index] != 0 || opened[index]) {
+                continue;
+            }
+            // a new opening, reveal everything it reaches
+            openings++;
+            opened[index] = true;
+            pending.push(index);
+            while (!pending.isEmpty()) {
+                var current = pending.pop();
+                if (numbers[current] != 0) {
+                    continue;
+                }
+                for (var neighbor : neighbors(current % width, current / width, width, height, topology)) {
+                    if (!opened[neighbor] && !mines[neighbor / width][neighbor % width]) {
+                        opened[neighbor] = true;
+                        pending.push(neighbor);
+                    }
+                }
+            }
+        }
+
+        var isolated = 0;
+        for (var index = 0; index < numbers.length; index++) {
+            if (!mines[index / width][index % width] && !opened[index]) {
+                isolated++;
+            }
+        }
+        return new int[]{openings + isolated, openings, isolated, safe};
+    }
+
+    /**
+     * Lists the neighbors of a space from its coordinates, without the space
+     * itself or repeats where a small board wraps onto itself
+     */
+    private static int[] neighbors(int x, int y, int width, int height, Topology topology) {
+        var out = new int[8];
+        var count = 0;
+        for (var dy = -1; dy <= 1; dy++) {
+            for (var dx = -1; dx <= 1; dx++) {
+                var nx = x + dx;
+                var ny = y + dy;
+                if (topology == Topology.TORUS) {
+                    nx = Math.floorMod(nx, width);
+                    ny = Math.floorMod(ny, height);
+                } else if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                    continue;
+                }
+                // hexagons in the rows above and below touch x and the space towards the shifted side
+                if (topology == Topology.HEX && dy != 0 && dx != 0 && dx != ((y & 1) == 0 ? -1 : 1)) {
+                    continue;
+                }
+                var index = ny * width + nx;
+                if (index == y * width + x) {
+                    continue;
+                }
+                var repeat = false;
+                for (var i = 0; i < count; i++) {
+                    repeat |= out[i] == index;
+                }
+                if (!repeat) {
+                    out[count++] = index;
+                }
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+}
@@ -0,0 +1,126 @@
+package edu.wou.cs361.minesweeper.corpus;
+
+import edu.wou.cs361.minesweeper.game.BoardAnalyzer;
+import edu.wou.cs361.minesweeper.game.BoardCorpus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Command line check that a corpus comes out the same however many threads
+ * generate it
+ * <br>
+ * Random corpora, with counts on either side of the chunks the threads take
+ * turns on, are generated by one thread and by several, and the files must
+ * match byte for byte. Every board must also have its mine count, a clear
+ * start and the 3BV the analyzer gives its mines. The same seed always checks
+ * the same corpora.
+ * <pre>
+ * CorpusDeterminism [corpora] [seed]
+ * </pre>
+ */
+public class CorpusDeterminism {
+    /**
+     * Runs the check
+     *
+     * @param args Optional number of corpora and seed
+     * @throws IOException If a corpus cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        var corpora = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        var seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        var problem = check(corpora, seed);
+        System.out.println(problem == null ? "ok      " + corpora + " corpora" : "FAILED  " + problem);
+        if (problem != null) {
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Generates random corpora with one thread and with several and compares them
+     *
+     * @param corpora Number of corpora to check
+     * @param seed    Seed of the random corpora
+     * @return what differs, or null if everything matches
+     * @throws IOException If a corpus cannot be written
+     */
+    public static String check(int corpora, long seed) throws IOException {
+        var random = new SplittableRandom(seed);
+        var single = Files.createTempFile("corpus-1-", ".bin");
+        var many = Files.createTempFile("corpus-n-", ".bin");
+        try {
+            for (var run = 0; run < corpora; run++) {
+                var width = 1 + random.nextInt(40);
+                var height = 1 + random.nextInt(30);
+                var startX = random.nextInt(width);
+                var startY = random.nextInt(height);
+                var clear = (Math.min(startX + 1, width - 1) - Math.max(startX - 1, 0) + 1)
+                        * (Math.min(startY + 1, height - 1) - Math.max(startY - 1, 0) + 1);
+                var mineCount = random.nextInt(width * height - clear + 1);
+                // up to a few chunks, so the threads split the work unevenly
+                var count = (long) random.nextInt(20000);
+                var threads = 2 + random.nextInt(7);
+                var boardSeed = random.nextLong();
+
+                var name = "corpus " + run + " (" + width + "x" + height + ", " + mineCount + " mines, " + count
+                        + " boards, " + threads + " threads)";
+                try (var one = BoardCorpus.generate(single, width, height, mineCount, startX, startY, count,
+                        boardSeed, 1);
+                     var several = BoardCorpus.generate(many, width, height, mineCount, startX, startY, count,
+                             boardSeed, threads)) {
+                    var at = Files.mismatch(single, many);
+                    if (at >= 0) {
+                        return name + ": files differ at byte " + at;
+                    }
+                    var problem = checkBoards(one);
+                    if (problem != null) {
+                        return name + ": " + problem;
+                    }
+                    if (several.size() != count) {
+                        return name + ": " + several.size() + " boards";
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(single);
+            Files.deleteIfExists(many);
+        }
+        return null;
+    }
+
+    /* Internal use */
+
+    private static String checkBoards(BoardCorpus corpus) {
+        var width = corpus.getWidth();
+        var height = corpus.getHeight();
+        var mines = new boolean[height][width];
+        var analyzer = new BoardAnalyzer(width, height);
+        for (var index = 0L; index < corpus.size(); index++) {
+            corpus.readMines(index, mines);
+            var placed = 0;
+            for (var y = 0; y < height; y++) {
+                for (var x = 0; x < width; x++) {
+                    if (!mines[y][x]) {
+                        continue;
+                    }
+                    placed++;
+                    if (Math.abs(x - corpus.getStartX()) <= 1 && Math.abs(y - corpus.getStartY()) <= 1) {
+                        return "board " + index + " has a mine at " + x + "," + y + " beside the start";
+                    }
+                }
+            }
+            if (placed != corpus.getMineCount()) {
+                return "board " + index + " has " + placed + " mines";
+            }
+            var value = analyzer.analyze(mines).getBoardValue();
+            if (corpus.getBoardValue(index) != value) {
+                return "board " + index + " stores 3BV " + corpus.getBoardValue(index) + ", its mines give "
+                        + value;
+            }
+        }
+        return null;
+    }
+}
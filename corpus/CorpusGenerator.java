@@ -0,0 +1,60 @@
+package edu.wou.cs361.minesweeper.corpus;
+
+import edu.wou.cs361.minesweeper.game.BoardCorpus;
+
+import java.nio.file.Path;
+
+/**
+ * Command line generator for {@link BoardCorpus} files
+ * <br>
+ * Boards are generated on every core by default. The first click defaults to
+ * the center of the board, and the same seed always gives the same file.
+ * <pre>
+ * CorpusGenerator output [boards] [width] [height] [mines] [seed] [threads] [start x] [start y]
+ * </pre>
+ */
+public class CorpusGenerator {
+    /**
+     * Generates a corpus
+     *
+     * @param args Output file, then optional board count, size, mines, seed, threads and start
+     * @throws Exception If the corpus could not be written
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: CorpusGenerator output [boards] [width] [height] [mines] [seed] [threads] [start x] [start y]");
+            System.exit(1);
+        }
+        var output = Path.of(args[0]);
+        var boards = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        var width = arg(args, 2, 30);
+        var height = arg(args, 3, 16);
+        var mines = arg(args, 4, 99);
+        var seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+        var threads = arg(args, 6, Runtime.getRuntime().availableProcessors());
+        var startX = arg(args, 7, width / 2);
+        var startY = arg(args, 8, height / 2);
+
+        var start = System.nanoTime();
+        try (var corpus = BoardCorpus.generate(output, width, height, mines, startX, startY, boards, seed, threads)) {
+            var seconds = (System.nanoTime() - start) / 1e9;
+
+            // a sample of the 3BV spread, straight from the records
+            var total = 0L;
+            var sampled = Math.min(corpus.size(), 100_000);
+            for (var i = 0; i < sampled; i++) {
+                total += corpus.getBoardValue(i);
+            }
+
+            System.out.printf("%d boards of %dx%d with %d mines in %.2fs on %d threads (%.0f boards/s)%n",
+                    corpus.size(), width, height, mines, seconds, threads, corpus.size() / seconds);
+            if (sampled > 0) {
+                System.out.printf("mean 3BV %.2f over the first %d boards%n", (double) total / sampled, sampled);
+            }
+        }
+    }
+
+    private static int arg(String[] args, int index, int fallback) {
+        return args.length > index ? Integer.parseInt(args[index]) : fallback;
+    }
+}
@@ -0,0 +1,192 @@
+package edu.wou.cs361.minesweeper.corpus;
+
+import edu.wou.cs361.minesweeper.game.BitBoard;
+import edu.wou.cs361.minesweeper.game.Game;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.model.Piece;
+import edu.wou.cs361.minesweeper.model.Space;
+
+import java.util.SplittableRandom;
+
+/**
+ * Command line check that the bitboard engine matches the per-space rules of
+ * the first release
+ * <br>
+ * Random minefields, with widths on either side of each 64 bit word, are
+ * counted both with {@link BitBoard#countNeighbors()} and by visiting the eight
+ * neighbors of every space, and random revealed sets are tested for a win both
+ * with {@link BitBoard#coversBoardWith(BitBoard)} and space by space. Then
+ * random games are played, and after every click each revealed number must
+ * match its neighbors and the game must be won exactly when every safe space
+ * is revealed. The same seed always checks the same boards.
+ * <pre>
+ * EngineEquivalence [boards] [seed]
+ * </pre>
+ */
+public class EngineEquivalence {
+    // widths around the word boundaries, where shifted rows carry between words
+    private static final int[] WIDTHS = {1, 2, 3, 63, 64, 65, 127, 128, 129};
+
+    /**
+     * Runs the check
+     *
+     * @param args Optional number of boards and seed
+     */
+    public static void main(String[] args) {
+        var boards = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        var seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        var problem = check(boards, seed);
+        System.out.println(problem == null ? "ok      " + boards + " boards" : "FAILED  " + problem);
+        if (problem != null) {
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Compares the bitboard engine with the per-space rules on random boards
+     *
+     * @param boards Number of boards to check
+     * @param seed   Seed of the random boards
+     * @return what differs, or null if everything matches
+     */
+    public static String check(int boards, long seed) {
+        var random = new SplittableRandom(seed);
+        for (var board = 0; board < boards; board++) {
+            var width = random.nextBoolean() ? WIDTHS[random.nextInt(WIDTHS.length)] : 1 + random.nextInt(200);
+            var height = 1 + random.nextInt(40);
+            var mines = randomMines(width, height, random.nextDouble(), random);
+
+            var problem = checkCounts(mines, width, height);
+            if (problem == null) {
+                problem = checkVictory(mines, width, height, random);
+            }
+            if (problem != null) {
+                return "board " + board + " (" + width + "x" + height + "): " + problem;
+            }
+        }
+
+        // whole games, on boards big enough to have openings
+        for (var game = 0; game < boards / 20 + 1; game++) {
+            var width = 9 + random.nextInt(120);
+            var height = 9 + random.nextInt(30);
+            var mineCount = random.nextInt(width * height / 5 + 1);
+            var problem = checkGame(new Game(width, height, mineCount, 0), random);
+            if (problem != null) {
+                return "game " + game + " (" + width + "x" + height + ", " + mineCount + " mines): " + problem;
+            }
+        }
+        return null;
+    }
+
+    /* Internal use */
+
+    private static boolean[][] randomMines(int width, int height, double density, SplittableRandom random) {
+        var mines = new boolean[height][width];
+        for (var row : mines) {
+            for (var x = 0; x < width; x++) {
+                row[x] = random.nextDouble() < density;
+            }
+        }
+        return mines;
+    }
+
+    /**
+     * Counts the mines around a space by visiting its neighbors, as the first release did
+     */
+    private static int count(boolean[][] mines, int x, int y) {
+        var count = 0;
+        for (var dy = -1; dy <= 1; dy++) {
+            for (var dx = -1; dx <= 1; dx++) {
+                var nx = x + dx;
+                var ny = y + dy;
+                if ((dx != 0 || dy != 0) && ny >= 0 && ny < mines.length && nx >= 0 && nx < mines[0].length
+                        && mines[ny][nx]) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static String checkCounts(boolean[][] mines, int width, int height) {
+        var counts = BitBoard.of(mines).countNeighbors();
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                var expected = count(mines, x, y);
+                if (counts.get(x, y) != expected) {
+                    return "countNeighbors gave " + counts.get(x, y) + " at " + x + "," + y + ", expected " + expected;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String checkVictory(boolean[][] mines, int width, int height, SplittableRandom random) {
+        // every safe space, then with one left out or a mine added, so both answers come up
+        var revealed = new BitBoard(width, height);
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                revealed.set(x, y, !mines[y][x]);
+            }
+        }
+        for (var variant = 0; variant < 3; variant++) {
+            if (variant > 0) {
+                var x = random.nextInt(width);
+                var y = random.nextInt(height);
+                revealed.set(x, y, variant == 2);
+            }
+
+            var expected = true;
+            for (var y = 0; y < height && expected; y++) {
+                for (var x = 0; x < width; x++) {
+                    if (!mines[y][x] && !revealed.get(x, y)) {
+                        expected = false;
+                        break;
+                    }
+                }
+            }
+            if (revealed.coversBoardWith(BitBoard.of(mines)) != expected) {
+                return "coversBoardWith gave " + !expected + " for variant " + variant;
+            }
+        }
+        return null;
+    }
+
+    private static String checkGame(Game game, SplittableRandom random) {
+        var width = game.getWidth();
+        var height = game.getHeight();
+        var actions = IGame.ClickAction.values();
+        var mines = new boolean[height][width];
+
+        for (var click = 0; click < 400 && !game.gameOver(); click++) {
+            // mostly reveals, with flags and marks so chords and replaced pieces come up
+            var action = random.nextInt(4) == 0 ? actions[random.nextInt(actions.length)] : IGame.ClickAction.DEFAULT;
+            game.handleClick(new Space(random.nextInt(width), random.nextInt(height)), action);
+
+            for (var y = 0; y < height; y++) {
+                for (var x = 0; x < width; x++) {
+                    mines[y][x] = game.isMine(new Space(x, y));
+                }
+            }
+            var lost = game.gameOver() && !game.hasWon();
+            var allRevealed = true;
+            for (var y = 0; y < height; y++) {
+                for (var x = 0; x < width; x++) {
+                    var piece = game.getPiece(x, y);
+                    if (piece != null && piece.isNumber() && piece != Piece.fromNumber(count(mines, x, y))) {
+                        return "space " + x + "," + y + " shows " + piece + " after click " + click;
+                    }
+                    if (!mines[y][x] && (piece == null || !piece.isNumber())) {
+                        allRevealed = false;
+                    }
+                }
+            }
+            if (!lost && game.hasWon() != allRevealed) {
+                return "won is " + game.hasWon() + " with every safe space revealed " + allRevealed
+                        + " after click " + click;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+package edu.wou.cs361.minesweeper.corpus;
+
+import edu.wou.cs361.minesweeper.game.Game;
+import edu.wou.cs361.minesweeper.game.GameSnapshot;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.model.Space;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Command line check that saves from earlier releases still load
+ * <br>
+ * Each save is read the way the window loads games, then written as a
+ * snapshot and read back, and the two games must show the same board, mines
+ * and state. Games kept in the serialized form have no topology and must
+ * come back with one. {@code baseline-save.bin} beside this class is a game
+ * saved by the first release, a 16x12 board part way through with a flag and
+ * a mark on it.
+ * <pre>
+ * SaveCompatibility save...
+ * </pre>
+ */
+public class SaveCompatibility {
+    /**
+     * Checks the saves
+     *
+     * @param args Saves to check
+     * @throws IOException If a save cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SaveCompatibility save...");
+            System.exit(1);
+        }
+
+        var failed = 0;
+        for (var arg : args) {
+            var problem = check(Path.of(arg));
+            System.out.println((problem == null ? "ok      " : "FAILED  ") + arg + (problem == null ? "" : ": " + problem));
+            if (problem != null) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Loads a save and round trips it through a snapshot
+     *
+     * @param file Save to check
+     * @return what is wrong with the save, or null if it loads
+     * @throws IOException If the save cannot be read
+     */
+    public static String check(Path file) throws IOException {
+        IGame loaded;
+        try (var in = Files.newInputStream(file)) {
+            loaded = IGame.readGame(in);
+        }
+        if (!(loaded instanceof Game)) {
+            return "loaded as " + loaded.getClass().getName();
+        }
+        var game = (Game) loaded;
+        if (game.getTopology() == null) {
+            return "no topology";
+        }
+
+        var bytes = new ByteArrayOutputStream();
+        GameSnapshot.write(game, new DataOutputStream(bytes));
+        var copy = GameSnapshot.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        if (copy.getWidth() != game.getWidth() || copy.getHeight() != game.getHeight()
+                || copy.getTopology() != game.getTopology()) {
+            return "snapshot changed the board size";
+        }
+        if (copy.getRemainingMines() != game.getRemainingMines() || copy.getCheats() != game.getCheats()
+                || copy.gameOver() != game.gameOver() || copy.hasWon() != game.hasWon()) {
+            return "snapshot changed the game state";
+        }
+        for (var y = 0; y < game.getHeight(); y++) {
+            for (var x = 0; x < game.getWidth(); x++) {
+                var space = new Space(x, y);
+                if (!Objects.equals(copy.getPiece(space), game.getPiece(space))
+                        || copy.isMine(space) != game.isMine(space)) {
+                    return "snapshot changed space " + x + "," + y;
+                }
+            }
+        }
+        return null;
+    }
+}
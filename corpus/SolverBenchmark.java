@@ -0,0 +1,163 @@
+package edu.wou.cs361.minesweeper.corpus;
+
+import edu.wou.cs361.minesweeper.game.BoardCorpus;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.metrics.Histogram;
+import edu.wou.cs361.minesweeper.model.Space;
+import edu.wou.cs361.minesweeper.solver.DeductionSolver;
+import edu.wou.cs361.minesweeper.solver.Solver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command line benchmark of a {@link Solver} over a {@link BoardCorpus}
+ * <br>
+ * Every board is opened at the corpus start space and then played only with
+ * the solver's moves until it wins, loses or gets stuck. The report covers
+ * how many boards were solved without a guess, how fast the solver decides
+ * and how long the game takes to apply each move. The JSON result has one
+ * value per line so two runs can be compared with a plain diff.
+ * <pre>
+ * SolverBenchmark corpus [boards] [result.json] [solver class]
+ * </pre>
+ */
+public class SolverBenchmark {
+    // data
+    private final BoardCorpus corpus;
+    private final Solver solver;
+
+    // results
+    private final Histogram decisions = new Histogram();
+    private final Histogram clicks = new Histogram();
+    private long boards, solved, stuck, lost;
+    private long solvedBoardValue;
+    private long wallNanos;
+
+    /**
+     * Creates a benchmark
+     *
+     * @param corpus Boards to play
+     * @param solver Solver to measure
+     */
+    public SolverBenchmark(BoardCorpus corpus, Solver solver) {
+        this.corpus = corpus;
+        this.solver = solver;
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args Corpus file, then optional board count, result file and solver class
+     * @throws Exception If the corpus cannot be read or the solver cannot be created
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: SolverBenchmark corpus [boards] [result.json] [solver class]");
+            System.exit(1);
+        }
+        Solver solver = args.length > 3
+                ? (Solver) Class.forName(args[3]).getDeclaredConstructor().newInstance()
+                : new DeductionSolver();
+
+        try (var corpus = BoardCorpus.open(Path.of(args[0]))) {
+            var boards = args.length > 1 ? Math.min(Long.parseLong(args[1]), corpus.size()) : corpus.size();
+            var benchmark = new SolverBenchmark(corpus, solver);
+            benchmark.run(boards);
+
+            var json = benchmark.toJson(args[0]);
+            System.out.print(json);
+            if (args.length > 2) {
+                Files.writeString(Path.of(args[2]), json);
+            }
+        }
+    }
+
+    /**
+     * Plays the first boards of the corpus
+     *
+     * @param count Boards to play
+     */
+    public void run(long count) {
+        var start = new Space(corpus.getStartX(), corpus.getStartY());
+        var began = System.nanoTime();
+
+        for (var index = 0L; index < count; index++) {
+            var game = corpus.newGame(index);
+            solver.reset();
+            game.handleClick(start, IGame.ClickAction.DEFAULT);
+
+            while (!game.gameOver()) {
+                var before = System.nanoTime();
+                var move = solver.next(game);
+                var decided = System.nanoTime();
+                if (move == null) {
+                    break;
+                }
+                decisions.record(decided - before);
+                move.apply(game);
+                clicks.record(System.nanoTime() - decided);
+            }
+
+            boards++;
+            if (!game.gameOver()) {
+                stuck++;
+            } else if (game.hasWon()) {
+                solved++;
+                solvedBoardValue += corpus.getBoardValue(index);
+            } else {
+                // a sound solver never gets here
+                lost++;
+            }
+        }
+        wallNanos = System.nanoTime() - began;
+    }
+
+    /**
+     * Formats the results as JSON, one value per line
+     *
+     * @param corpusName Name of the corpus to put in the result
+     * @return the results
+     */
+    public String toJson(String corpusName) {
+        var decided = decisions.getCount();
+        var decideSeconds = decisions.getSum() / 1e9;
+        var json = new StringBuilder("{\n");
+        field(json, "corpus", "\"" + corpusName.replace("\\", "\\\\").replace("\"", "\\\"") + "\"");
+        field(json, "board", "\"" + corpus.getWidth() + "x" + corpus.getHeight() + "-" + corpus.getMineCount() + "\"");
+        field(json, "seed", corpus.getSeed());
+        field(json, "solver", "\"" + solver.getClass().getSimpleName() + "\"");
+        field(json, "boards", boards);
+        field(json, "solved", solved);
+        field(json, "stuck", stuck);
+        field(json, "lost", lost);
+        field(json, "solvedRate", format(boards == 0 ? 0 : (double) solved / boards));
+        field(json, "meanSolved3BV", format(solved == 0 ? 0 : (double) solvedBoardValue / solved));
+        field(json, "decisions", decided);
+        field(json, "decisionsPerSecond", format(decideSeconds == 0 ? 0 : decided / decideSeconds));
+        latency(json, "decisionNanos", decisions);
+        latency(json, "clickNanos", clicks);
+        json.append("  \"wallSeconds\": ").append(format(wallNanos / 1e9)).append("\n}\n");
+        return json.toString();
+    }
+
+    /* Internal use */
+
+    private static void field(StringBuilder json, String name, Object value) {
+        json.append("  \"").append(name).append("\": ").append(value).append(",\n");
+    }
+
+    private static void latency(StringBuilder json, String name, Histogram histogram) {
+        json.append("  \"").append(name).append("\": {\n");
+        json.append("    \"p50\": ").append(histogram.percentile(0.50)).append(",\n");
+        json.append("    \"p90\": ").append(histogram.percentile(0.90)).append(",\n");
+        json.append("    \"p99\": ").append(histogram.percentile(0.99)).append(",\n");
+        json.append("    \"max\": ").append(histogram.getMax()).append("\n");
+        json.append("  },\n");
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -0,0 +1,57 @@
+package edu.wou.cs361.minesweeper.game;
+
+/**
+ * Outcome of {@link IGame#handleClicks(ClickBatch)}
+ */
+public final class BatchResult {
+    // data
+    private final int applied;
+    private final long changed;
+    private final GameState state;
+
+    /**
+     * Creates a result
+     *
+     * @param applied Clicks handled before the batch ended
+     * @param changed Space changes made, a space changed twice counts twice
+     * @param state   State after the batch
+     */
+    public BatchResult(int applied, long changed, GameState state) {
+        this.applied = applied;
+        this.changed = changed;
+        this.state = state;
+    }
+
+    /**
+     * Gets the number of clicks handled. Less than the batch size if the game
+     * ended part way through
+     *
+     * @return clicks handled
+     */
+    public int getApplied() {
+        return applied;
+    }
+
+    /**
+     * Gets the number of space changes the batch made
+     *
+     * @return changes made, a space changed twice counts twice
+     */
+    public long getChanged() {
+        return changed;
+    }
+
+    /**
+     * Gets the state of the game after the batch
+     *
+     * @return the game state
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return applied + " clicks, " + changed + " changes, " + state;
+    }
+}
@@ -0,0 +1,255 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of spaces stored as one bit per space, each row in its own run of
+ * 64 bit words, so whole-board operations work on 64 spaces at a time
+ * <br>
+ * Bits past the width of a row are always clear, so word-level operations
+ * never need to mask them out.
+ */
+public final class BitBoard {
+    // data
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * Creates an empty set
+     *
+     * @param width  Width of the board
+     * @param height Height of the board
+     */
+    public BitBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Creates a set of every true space
+     *
+     * @param rows Spaces, indexed [y][x]
+     * @return the set
+     */
+    public static BitBoard of(boolean[][] rows) {
+        var bits = new BitBoard(rows[0].length, rows.length);
+        for (var y = 0; y < bits.height; y++) {
+            var row = rows[y];
+            var base = y * bits.wordsPerRow;
+            for (var x = 0; x < bits.width; x++) {
+                if (row[x]) {
+                    bits.words[base + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Copies the set, so later changes to this one do not show in the copy
+     *
+     * @return the copy
+     */
+    public BitBoard copy() {
+        var copy = new BitBoard(width, height);
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    /**
+     * Checks if a space is in the set
+     *
+     * @param x X value of the space
+     * @param y Y value of the space
+     * @return true if the space is set
+     */
+    public boolean get(int x, int y) {
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Adds or removes a space
+     *
+     * @param x     X value of the space
+     * @param y     Y value of the space
+     * @param value Whether the space is in the set
+     */
+    public void set(int x, int y, boolean value) {
+        var word = y * wordsPerRow + (x >>> 6);
+        if (value) {
+            words[word] |= 1L << x;
+        } else {
+            words[word] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * Removes every space
+     */
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    /**
+     * Counts the spaces in the set
+     *
+     * @return number of spaces set
+     */
+    public int cardinality() {
+        var count = 0;
+        for (var word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if every space on the board is in this set or the other
+     *
+     * @param other Set of the same size
+     * @return true if together they cover the board
+     */
+    public boolean coversBoardWith(BitBoard other) {
+        var lastMask = lastWordMask();
+        for (var y = 0; y < height; y++) {
+            var base = y * wordsPerRow;
+            for (var w = 0; w < wordsPerRow; w++) {
+                var full = w == wordsPerRow - 1 ? lastMask : -1L;
+                if ((words[base + w] | other.words[base + w]) != full) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calls an action with the index, y * width + x, of every space in exactly
+     * one of this set and the other, in row order
+     *
+     * @param other  Set of the same size
+     * @param action Action to run
+     */
+    public void forEachDifference(BitBoard other, IntConsumer action) {
+        for (var y = 0; y < height; y++) {
+            var base = y * wordsPerRow;
+            for (var w = 0; w < wordsPerRow; w++) {
+                var word = words[base + w] ^ other.words[base + w];
+                while (word != 0) {
+                    action.accept(y * width + (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the spaces in exactly one of this set and the other
+     *
+     * @param other Set of the same size
+     * @return number of spaces in the difference
+     */
+    public int differenceCount(BitBoard other) {
+        var count = 0;
+        for (var i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] ^ other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the neighbors in this set of every space on the board at once.
+     * Each of the eight neighbor directions is a shifted copy of the rows, and
+     * the copies are summed with bit-sliced adders into four bit planes, so
+     * the whole count takes a few dozen word operations per 64 spaces
+     *
+     * @return the neighbor counts
+     */
+    public NeighborCounts countNeighbors() {
+        var counts = new NeighborCounts(width, height);
+        var sum = new long[4];
+        var lastMask = lastWordMask();
+        for (var y = 0; y < height; y++) {
+            var base = y * wordsPerRow;
+            for (var w = 0; w < wordsPerRow; w++) {
+                Arrays.fill(sum, 0);
+                for (var row = Math.max(0, y - 1); row <= Math.min(height - 1, y + 1); row++) {
+                    var rowBase = row * wordsPerRow;
+                    var center = words[rowBase + w];
+                    var before = w > 0 ? words[rowBase + w - 1] : 0;
+                    var after = w < wordsPerRow - 1 ? words[rowBase + w + 1] : 0;
+
+                    // the space to the left lands on each bit, then the space to the right
+                    add(sum, (center << 1) | (before >>> 63));
+                    add(sum, (center >>> 1) | (after << 63));
+                    if (row != y) {
+                        add(sum, center);
+                    }
+                }
+
+                var mask = w == wordsPerRow - 1 ? lastMask : -1L;
+                for (var plane = 0; plane < 4; plane++) {
+                    counts.planes[plane][base + w] = sum[plane] & mask;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /* Internal use */
+
+    /**
+     * Adds one bit per space into a four bit counter per space, a ripple carry
+     * adder run on 64 spaces at once
+     *
+     * @param sum   Counter bit planes, lowest first
+     * @param plane One bit to add for each space
+     */
+    private static void add(long[] sum, long plane) {
+        var carry = plane;
+        for (var i = 0; i < 4 && carry != 0; i++) {
+            var next = sum[i] & carry;
+            sum[i] ^= carry;
+            carry = next;
+        }
+    }
+
+    private long lastWordMask() {
+        var used = width & 63;
+        return used == 0 ? -1L : (1L << used) - 1;
+    }
+
+    /**
+     * Number of neighbors of every space, stored as four bit planes
+     */
+    public static final class NeighborCounts {
+        private final int wordsPerRow;
+        private final long[][] planes;
+
+        private NeighborCounts(int width, int height) {
+            this.wordsPerRow = (width + 63) >>> 6;
+            this.planes = new long[4][wordsPerRow * height];
+        }
+
+        /**
+         * Gets the count for one space
+         *
+         * @param x X value of the space
+         * @param y Y value of the space
+         * @return neighbors in the set, 0 to 8
+         */
+        public int get(int x, int y) {
+            var word = y * wordsPerRow + (x >>> 6);
+            var bit = x & 63;
+            return (int) ((planes[0][word] >>> bit) & 1
+                    | ((planes[1][word] >>> bit) & 1) << 1
+                    | ((planes[2][word] >>> bit) & 1) << 2
+                    | ((planes[3][word] >>> bit) & 1) << 3);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package edu.wou.cs361.minesweeper.game;
+
+/**
+ * Standard difficulty measures of a minefield, from {@link BoardAnalyzer}
+ */
+public final class BoardAnalysis {
+    // data
+    private final int openings;
+    private final int isolatedNumbers;
+    private final int safeSpaces;
+
+    BoardAnalysis(int openings, int isolatedNumbers, int safeSpaces) {
+        this.openings = openings;
+        this.isolatedNumbers = isolatedNumbers;
+        this.safeSpaces = safeSpaces;
+    }
+
+    /**
+     * Gets the 3BV, the fewest clicks that clear the board without flags
+     *
+     * @return openings plus isolated numbers
+     */
+    public int getBoardValue() {
+        return openings + isolatedNumbers;
+    }
+
+    /**
+     * Gets the number of openings, groups of connected empty spaces that
+     * are each cleared by a single click
+     *
+     * @return number of openings
+     */
+    public int getOpenings() {
+        return openings;
+    }
+
+    /**
+     * Gets the number spaces not next to any opening, each needing its own click
+     *
+     * @return number of isolated numbers
+     */
+    public int getIsolatedNumbers() {
+        return isolatedNumbers;
+    }
+
+    /**
+     * Gets the number of spaces without a mine
+     *
+     * @return safe spaces
+     */
+    public int getSafeSpaces() {
+        return safeSpaces;
+    }
+
+    @Override
+    public String toString() {
+        return "3BV " + getBoardValue() + " (" + openings + " openings, " + isolatedNumbers + " isolated)";
+    }
+}
@@ -0,0 +1,246 @@
+package edu.wou.cs361.minesweeper.game;
+
+/**
+ * Rates minefields by their 3BV, openings and isolated numbers
+ * <br>
+ * The numbers are counted by spreading each mine to its neighbors, then a
+ * single row order scan joins every empty space to the empty spaces above and
+ * to its left with a union-find, so each opening is counted once without a
+ * flood fill. Numbers with no empty neighbor are counted in the same scan.
+ * Nothing is allocated per space, and an analyzer can be reused for any
+ * number of boards of its size.
+ */
+public final class BoardAnalyzer {
+    // marks a mine in the numbers
+    private static final byte MINE = -1;
+    // marks the border around the board, never counted as empty
+    private static final byte BORDER = 64;
+
+    // data
+    private final int width;
+    private final int height;
+    // row length with a border column either side
+    private final int stride;
+    private final int[] offsets;
+    private final byte[] numbers;
+    private final int[] parent;
+
+    /**
+     * Creates an analyzer for boards of one size
+     *
+     * @param width  Width of the boards
+     * @param height Height of the boards
+     */
+    public BoardAnalyzer(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        // a one space border all round means neighbors never need a bounds check
+        this.stride = width + 2;
+        this.offsets = new int[]{-stride - 1, -stride, -stride + 1, -1, 1, stride - 1, stride, stride + 1};
+        this.numbers = new byte[stride * (height + 2)];
+        this.parent = new int[numbers.length];
+    }
+
+    /**
+     * Analyzes a minefield stored by row, as in {@link GameBase}
+     *
+     * @param mines Mines, indexed [y][x]
+     * @return the analysis
+     */
+    public BoardAnalysis analyze(boolean[][] mines) {
+        for (var y = 0; y < height; y++) {
+            var row = mines[y];
+            var offset = (y + 1) * stride + 1;
+            for (var x = 0; x < width; x++) {
+                numbers[offset + x] = row[x] ? MINE : 0;
+            }
+        }
+        return count();
+    }
+
+    /**
+     * Analyzes a minefield stored in a single array in row order
+     *
+     * @param mines Mines, indexed y * width + x
+     * @return the analysis
+     */
+    public BoardAnalysis analyze(boolean[] mines) {
+        for (var y = 0; y < height; y++) {
+            var from = y * width;
+            var offset = (y + 1) * stride + 1;
+            for (var x = 0; x < width; x++) {
+                numbers[offset + x] = mines[from + x] ? MINE : 0;
+            }
+        }
+        return count();
+    }
+
+    /**
+     * Analyzes a minefield on any topology. Slower than the padded grid, every
+     * neighbor comes from the table and a new union-find is made each time
+     *
+     * @param mines Mines, indexed [y][x]
+     * @param table Neighbors of every space
+     * @return the analysis
+     */
+    public static BoardAnalysis analyze(boolean[][] mines, NeighborTable table) {
+        var width = mines[0].length;
+        var numbers = table.countMines(mines);
+        var parent = new int[numbers.length];
+
+        var openings = 0;
+        var isolated = 0;
+        var safe = 0;
+        for (var index = 0; index < numbers.length; index++) {
+            if (mines[index / width][index % width]) {
+                continue;
+            }
+            safe++;
+
+            var neighbors = table.offsets(index);
+            if (numbers[index] > 0) {
+                var touches = false;
+                for (var offset : neighbors) {
+                    var neighbor = index + offset;
+                    touches |= numbers[neighbor] == 0 && !mines[neighbor / width][neighbor % width];
+                }
+                if (!touches) {
+                    isolated++;
+                }
+                continue;
+            }
+
+            // neighbors are mutual, so joining the ones already scanned finds every link
+            parent[index] = index;
+            openings++;
+            for (var offset : neighbors) {
+                var neighbor = index + offset;
+                if (neighbor < index && numbers[neighbor] == 0 && union(parent, index, neighbor)) {
+                    openings--;
+                }
+            }
+        }
+        return new BoardAnalysis(openings, isolated, safe);
+    }
+
+    /**
+     * Gets the number on a space from the last analysis
+     *
+     * @param x X value of the space
+     * @param y Y value of the space
+     * @return mines next to the space, or -1 for a mine
+     */
+    public int getNumber(int x, int y) {
+        return numbers[(y + 1) * stride + x + 1];
+    }
+
+    /* Internal use */
+
+    private BoardAnalysis count() {
+        resetBorder();
+        spreadMines();
+
+        var openings = 0;
+        var isolated = 0;
+        var safe = 0;
+        for (var y = 1; y <= height; y++) {
+            var end = y * stride + width;
+            for (var index = y * stride + 1; index <= end; index++) {
+                var number = numbers[index];
+                if (number == MINE) {
+                    continue;
+                }
+                safe++;
+
+                if (number > 0) {
+                    if (!touchesEmpty(index)) {
+                        isolated++;
+                    }
+                    continue;
+                }
+
+                // a new opening, unless it joins one already scanned to the left or above
+                parent[index] = index;
+                openings++;
+                for (var i = 0; i < 4; i++) {
+                    var neighbor = index + offsets[i];
+                    if (numbers[neighbor] == 0 && union(index, neighbor)) {
+                        openings--;
+                    }
+                }
+            }
+        }
+        return new BoardAnalysis(openings, isolated, safe);
+    }
+
+    private void resetBorder() {
+        var bottom = (height + 1) * stride;
+        for (var x = 0; x < stride; x++) {
+            numbers[x] = BORDER;
+            numbers[bottom + x] = BORDER;
+        }
+        for (var y = 1; y <= height; y++) {
+            numbers[y * stride] = BORDER;
+            numbers[y * stride + width + 1] = BORDER;
+        }
+    }
+
+    /**
+     * Adds each mine to the numbers around it, the border just counts up harmlessly
+     */
+    private void spreadMines() {
+        for (var y = 1; y <= height; y++) {
+            var end = y * stride + width;
+            for (var index = y * stride + 1; index <= end; index++) {
+                if (numbers[index] != MINE) {
+                    continue;
+                }
+                for (var offset : offsets) {
+                    if (numbers[index + offset] != MINE) {
+                        numbers[index + offset]++;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean touchesEmpty(int index) {
+        for (var offset : offsets) {
+            if (numbers[index + offset] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Joins the sets of two empty spaces
+     *
+     * @param a Index of the first space
+     * @param b Index of the second space
+     * @return true if they were in different sets
+     */
+    private boolean union(int a, int b) {
+        return union(parent, a, b);
+    }
+
+    private static boolean union(int[] parent, int a, int b) {
+        var rootA = find(parent, a);
+        var rootB = find(parent, b);
+        if (rootA == rootB) {
+            return false;
+        }
+        parent[rootA] = rootB;
+        return true;
+    }
+
+    private static int find(int[] parent, int index) {
+        // path halving, keeps the trees flat without recursion
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+}
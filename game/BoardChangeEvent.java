@@ -0,0 +1,240 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.util.function.IntConsumer;
+
+/**
+ * All changes made to a board by one operation
+ * <br>
+ * Single spaces are stored as cell indexes ({@code y * width + x}) and bulk
+ * changes as row runs, so no object is made per space. A new game or restart
+ * is a single whole-board flag, which listeners can handle by redrawing everything.
+ * <br>
+ * A small change lists its cells as they were written, so a space written
+ * twice in one operation, such as a batch that flags a space and then takes
+ * the flag off again, can appear twice. Listeners treat each index as "read this space
+ * again". A bulk change is gathered into runs, where every space appears once.
+ * <br>
+ * The mines shown when a game ends are not listed either. The game resolves
+ * them as each space is read, so a view only needs to redraw what it shows,
+ * and {@link #forEachRevealedMine(IntConsumer)} lists them for anyone who
+ * needs every space.
+ */
+public final class BoardChangeEvent {
+    // data
+    private final int width, height;
+    private final int[] cells;
+    private final int[] runs;
+    private final boolean wholeBoard;
+    private final BitBoard revealMines, revealFlags;
+    private final GameState previousState, state;
+    private final int remainingMines;
+
+    /**
+     * Creates a new event
+     *
+     * @param width          Width of the board
+     * @param height         Height of the board
+     * @param cells          Changed cell indexes
+     * @param runs           Changed row runs as (row, first x, last x) triples
+     * @param wholeBoard     Whether every space changed, in which case there are no cells or runs
+     * @param revealMines    Mines shown at the end of the game, or null
+     * @param revealFlags    Flags at the end of the game, the reveal is the spaces in exactly one set
+     * @param previousState  State before the operation
+     * @param state          State after the operation
+     * @param remainingMines Remaining mines after the operation
+     */
+    BoardChangeEvent(int width, int height, int[] cells, int[] runs, boolean wholeBoard,
+                     BitBoard revealMines, BitBoard revealFlags,
+                     GameState previousState, GameState state, int remainingMines) {
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+        this.runs = runs;
+        this.wholeBoard = wholeBoard;
+        this.revealMines = revealMines;
+        this.revealFlags = revealFlags;
+        this.previousState = previousState;
+        this.state = state;
+        this.remainingMines = remainingMines;
+    }
+
+    /**
+     * Gets the width of the board, to turn cell indexes into spaces
+     *
+     * @return The width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Checks if every space on the board changed, as after a new game or restart.
+     * The event then has no single cells or runs
+     *
+     * @return true if the whole board changed
+     */
+    public boolean isWholeBoard() {
+        return wholeBoard;
+    }
+
+    /**
+     * Checks if the game ended and showed its mines and wrong flags
+     *
+     * @return true if the mines were revealed
+     */
+    public boolean isMinesRevealed() {
+        return revealMines != null;
+    }
+
+    /**
+     * Calls an action with the index of every space the end of game reveal
+     * changed, in row order. The spaces are found when this is called
+     *
+     * @param action Action taking a cell index
+     */
+    public void forEachRevealedMine(IntConsumer action) {
+        if (revealMines != null) {
+            revealMines.forEachDifference(revealFlags, action);
+        }
+    }
+
+    /**
+     * Gets the number of single changed cells
+     *
+     * @return number of cells
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    /**
+     * Gets a changed cell
+     *
+     * @param i Position in the event, from 0 to {@link #getCellCount()}
+     * @return cell index, {@code y * width + x}
+     */
+    public int getCell(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Gets the number of changed row runs
+     *
+     * @return number of runs
+     */
+    public int getRunCount() {
+        return runs.length / 3;
+    }
+
+    /**
+     * Gets the row of a run
+     *
+     * @param i Run number, from 0 to {@link #getRunCount()}
+     * @return y value of the run
+     */
+    public int getRunRow(int i) {
+        return runs[i * 3];
+    }
+
+    /**
+     * Gets the first space of a run
+     *
+     * @param i Run number, from 0 to {@link #getRunCount()}
+     * @return x value of the first changed space
+     */
+    public int getRunStart(int i) {
+        return runs[i * 3 + 1];
+    }
+
+    /**
+     * Gets the last space of a run
+     *
+     * @param i Run number, from 0 to {@link #getRunCount()}
+     * @return x value of the last changed space, inclusive
+     */
+    public int getRunEnd(int i) {
+        return runs[i * 3 + 2];
+    }
+
+    /**
+     * Counts every changed space, including those in runs and the revealed
+     * mines. A space listed twice counts twice
+     *
+     * @return number of changed spaces
+     */
+    public long size() {
+        if (wholeBoard) {
+            return (long) width * height;
+        }
+        long size = cells.length;
+        if (revealMines != null) {
+            size += revealMines.differenceCount(revealFlags);
+        }
+        for (var i = 0; i < runs.length; i += 3) {
+            size += runs[i + 2] - runs[i + 1] + 1;
+        }
+        return size;
+    }
+
+    /**
+     * Calls an action with the index of every changed space, cells first then
+     * runs, or every space in row order for a whole-board change. The revealed
+     * mines are not included, see {@link #forEachRevealedMine(IntConsumer)}
+     *
+     * @param action Action taking a cell index
+     */
+    public void forEachCell(IntConsumer action) {
+        if (wholeBoard) {
+            var spaces = width * height;
+            for (var index = 0; index < spaces; index++) {
+                action.accept(index);
+            }
+            return;
+        }
+        for (var cell : cells) {
+            action.accept(cell);
+        }
+        for (var i = 0; i < runs.length; i += 3) {
+            var rowStart = runs[i] * width;
+            for (var x = runs[i + 1]; x <= runs[i + 2]; x++) {
+                action.accept(rowStart + x);
+            }
+        }
+    }
+
+    /**
+     * Gets the state before the operation
+     *
+     * @return the previous state
+     */
+    public GameState getPreviousState() {
+        return previousState;
+    }
+
+    /**
+     * Gets the state after the operation
+     *
+     * @return the current state
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Checks if the operation won, lost or restarted the game
+     *
+     * @return true if the state changed
+     */
+    public boolean isStateChanged() {
+        return previousState != state;
+    }
+
+    /**
+     * Gets the remaining mines after the operation
+     *
+     * @return remaining mines
+     */
+    public int getRemainingMines() {
+        return remainingMines;
+    }
+}
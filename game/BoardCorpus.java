@@ -0,0 +1,365 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed set of boards of one size in a memory mapped file, read by index
+ * <br>
+ * The file is a 64 byte header followed by one fixed size record per board:
+ * the 3BV as an int, then the mines as one bit per space in row order. Every
+ * board is generated with the same first click, which is stored in the header,
+ * and board i always comes from its own stream seeded by the master seed and i,
+ * so a corpus is the same however many threads generated it.
+ */
+public class BoardCorpus implements Closeable {
+    /**
+     * First four bytes of every corpus, "MSCP"
+     */
+    public static final int MAGIC = 0x4D534350;
+    /**
+     * Current corpus format
+     */
+    public static final short VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+
+    // boards each thread takes at a time
+    private static final int CHUNK = 4096;
+
+    // data
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int mineCount;
+    private final int startX;
+    private final int startY;
+    private final long seed;
+    private final long count;
+    private final int recordBytes;
+
+    // the file in record aligned pieces, since one mapping is limited to 2GB
+    private final MappedByteBuffer[] segments;
+    private final long recordsPerSegment;
+
+    private BoardCorpus(Path file, boolean writable) throws IOException {
+        this.channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+
+        var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a board corpus");
+        }
+        var version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported corpus version " + version);
+        }
+        header.getShort();
+        this.width = header.getInt();
+        this.height = header.getInt();
+        this.mineCount = header.getInt();
+        this.startX = header.getInt();
+        this.startY = header.getInt();
+        this.recordBytes = header.getInt();
+        this.count = header.getLong();
+        this.seed = header.getLong();
+        if (recordBytes != recordBytes(width, height)
+                || channel.size() < HEADER_BYTES + count * recordBytes) {
+            throw new IOException("Corpus is truncated or damaged");
+        }
+
+        this.recordsPerSegment = Integer.MAX_VALUE / recordBytes;
+        var segmentCount = (int) ((count + recordsPerSegment - 1) / recordsPerSegment);
+        this.segments = new MappedByteBuffer[segmentCount];
+        var mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (var i = 0; i < segmentCount; i++) {
+            var first = i * recordsPerSegment;
+            var records = Math.min(recordsPerSegment, count - first);
+            segments[i] = channel.map(mode, HEADER_BYTES + first * recordBytes, records * recordBytes);
+        }
+    }
+
+    /**
+     * Opens an existing corpus for reading
+     *
+     * @param file Corpus file
+     * @return the corpus
+     * @throws IOException If the file cannot be read or is not a corpus
+     */
+    public static BoardCorpus open(Path file) throws IOException {
+        return new BoardCorpus(file, false);
+    }
+
+    /**
+     * Generates a corpus, replacing the file. The output only depends on the
+     * size, start, count and seed, never on the number of threads
+     *
+     * @param file      Corpus file to write
+     * @param width     Width of the boards
+     * @param height    Height of the boards
+     * @param mineCount Mines on each board
+     * @param startX    X value of the first click, kept clear on every board
+     * @param startY    Y value of the first click
+     * @param count     Number of boards
+     * @param seed      Master seed
+     * @param threads   Threads generating boards
+     * @return the finished corpus, open for reading
+     * @throws IOException If the file cannot be written
+     */
+    public static BoardCorpus generate(Path file, int width, int height, int mineCount, int startX, int startY,
+                                       long count, long seed, int threads) throws IOException {
+        if (width < 1 || height < 1 || startX < 0 || startY < 0 || startX >= width || startY >= height) {
+            throw new IllegalArgumentException("Invalid board size or start");
+        }
+        var clear = (Math.min(startX + 1, width - 1) - Math.max(startX - 1, 0) + 1)
+                * (Math.min(startY + 1, height - 1) - Math.max(startY - 1, 0) + 1);
+        if (mineCount < 0 || mineCount > width * height - clear) {
+            throw new IllegalArgumentException("Too many mines for the board");
+        }
+
+        // header first, sized so the records can be mapped straight away
+        var recordBytes = recordBytes(width, height);
+        try (var out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC)
+                    .putShort(VERSION)
+                    .putShort((short) 0)
+                    .putInt(width)
+                    .putInt(height)
+                    .putInt(mineCount)
+                    .putInt(startX)
+                    .putInt(startY)
+                    .putInt(recordBytes)
+                    .putLong(count)
+                    .putLong(seed)
+                    .clear();
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+            // extend the file to its final length
+            out.write(ByteBuffer.allocate(1), HEADER_BYTES + count * recordBytes - 1);
+        }
+
+        var corpus = new BoardCorpus(file, true);
+        var next = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (var i = 0; i < Math.max(1, threads); i++) {
+                workers.add(executor.submit(() -> {
+                    corpus.fill(next, seed);
+                    return null;
+                }));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Generating failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        for (var segment : corpus.segments) {
+            segment.force();
+        }
+        return corpus;
+    }
+
+    /**
+     * Gets the number of boards
+     *
+     * @return number of boards
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Gets the width of every board
+     *
+     * @return board width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of every board
+     *
+     * @return board height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the mines on every board
+     *
+     * @return mine count
+     */
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    /**
+     * Gets the X value of the first click every board was generated for
+     *
+     * @return start X
+     */
+    public int getStartX() {
+        return startX;
+    }
+
+    /**
+     * Gets the Y value of the first click every board was generated for
+     *
+     * @return start Y
+     */
+    public int getStartY() {
+        return startY;
+    }
+
+    /**
+     * Gets the master seed
+     *
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the 3BV of a board without reading its mines
+     *
+     * @param index Board index
+     * @return 3BV of the board
+     */
+    public int getBoardValue(long index) {
+        return segment(index).getInt(offset(index));
+    }
+
+    /**
+     * Copies the mines of a board into an existing minefield
+     *
+     * @param index Board index
+     * @param mines Minefield indexed [y][x], overwritten
+     */
+    public void readMines(long index, boolean[][] mines) {
+        var segment = segment(index);
+        var base = offset(index) + Integer.BYTES;
+        var bit = 0;
+        for (var y = 0; y < height; y++) {
+            var row = mines[y];
+            for (var x = 0; x < width; x++, bit++) {
+                row[x] = (segment.get(base + (bit >> 3)) & (1 << (bit & 7))) != 0;
+            }
+        }
+    }
+
+    /**
+     * Creates a game on a board with its mines placed, ready for the first click
+     * at the start space
+     *
+     * @param index Board index
+     * @return a new game
+     */
+    public Game newGame(long index) {
+        var game = new Game(width, height, mineCount, 0, true);
+        readMines(index, game.mines);
+        game.firstClick = false;
+        return game;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /* Internal use */
+
+    private static int recordBytes(int width, int height) {
+        return Integer.BYTES + (width * height + 7) / 8;
+    }
+
+    /**
+     * Seed of board i's own stream, a 64 bit mix of the master seed and the index
+     */
+    private static long boardSeed(long seed, long index) {
+        var z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generates chunks of boards until none are left, run by each thread
+     *
+     * @param next Next board index to hand out
+     * @param seed Master seed
+     */
+    private void fill(AtomicLong next, long seed) {
+        var mines = new boolean[height][width];
+        var analyzer = new BoardAnalyzer(width, height);
+        var table = Topology.SQUARE.table(width, height);
+        var record = new byte[recordBytes];
+
+        while (true) {
+            var first = next.getAndAdd(CHUNK);
+            if (first >= count) {
+                return;
+            }
+            var last = Math.min(count, first + CHUNK);
+            for (var index = first; index < last; index++) {
+                Game.placeMines(mines, mineCount, startX, startY, table,
+                        new SplittableRandom(boardSeed(seed, index)));
+                var value = analyzer.analyze(mines).getBoardValue();
+
+                record[0] = (byte) (value >>> 24);
+                record[1] = (byte) (value >>> 16);
+                record[2] = (byte) (value >>> 8);
+                record[3] = (byte) value;
+                Arrays.fill(record, Integer.BYTES, record.length, (byte) 0);
+                var bit = 0;
+                for (var y = 0; y < height; y++) {
+                    var row = mines[y];
+                    for (var x = 0; x < width; x++, bit++) {
+                        if (row[x]) {
+                            record[Integer.BYTES + (bit >> 3)] |= 1 << (bit & 7);
+                        }
+                    }
+                }
+
+                // records never overlap, so threads can write the mapping at once
+                segment(index).put(offset(index), record);
+            }
+        }
+    }
+
+    private MappedByteBuffer segment(long index) {
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    private int offset(long index) {
+        return (int) (index % recordsPerSegment) * recordBytes;
+    }
+}
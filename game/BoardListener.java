@@ -0,0 +1,18 @@
+package edu.wou.cs361.minesweeper.game;
+
+/**
+ * Receives the changes made to a board, one event per game operation
+ * <br>
+ * Listeners are called on the thread that ran the operation, after it
+ * finishes. Events are immutable, so a listener may hand them to another
+ * thread, but should return quickly since the game waits on it.
+ */
+@FunctionalInterface
+public interface BoardListener {
+    /**
+     * Called after a click, new game or restart changed the board
+     *
+     * @param event Every space changed by the operation and the game state
+     */
+    void boardChanged(BoardChangeEvent event);
+}
@@ -0,0 +1,279 @@
+package edu.wou.cs361.minesweeper.game;
+
+import edu.wou.cs361.minesweeper.model.Piece;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads boards written by {@link BoardTextWriter}, one line at a time
+ * <br>
+ * The channel is read through one fixed buffer and each line is parsed in
+ * place: numbers are read from the bytes, and base64 is decoded into a
+ * reused buffer and unpacked straight into the new game's mines and pieces.
+ * Memory use only depends on the longest line, not on the number of boards.
+ */
+public class BoardTextReader implements Closeable {
+    private static final Piece[] PIECES = Piece.values();
+
+    // base64 character values, -1 for anything else
+    private static final byte[] BASE64 = new byte[128];
+
+    static {
+        Arrays.fill(BASE64, (byte) -1);
+        var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (var i = 0; i < alphabet.length(); i++) {
+            BASE64[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    // data
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private boolean endOfInput;
+
+    // the current line and the parse position in it
+    private byte[] line = new byte[1024];
+    private int lineLength;
+    private int position;
+    private long lineNumber;
+
+    // decoded bytes, reused between lines
+    private byte[] decoded = new byte[0];
+
+    /**
+     * Creates a reader over a file
+     *
+     * @param file File to read
+     * @throws IOException If the file cannot be opened
+     */
+    public BoardTextReader(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Creates a reader over a channel, closed along with the reader
+     *
+     * @param channel Source
+     */
+    public BoardTextReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer.flip();
+    }
+
+    /**
+     * Reads the next board. Blank lines are skipped
+     *
+     * @return the board, or null at the end of the input
+     * @throws IOException If the channel fails or a line is not a board
+     */
+    public Game next() throws IOException {
+        do {
+            if (!readLine()) {
+                return null;
+            }
+        } while (lineLength == 0);
+        position = 0;
+
+        var width = parseNumber();
+        var height = parseNumber();
+        var mineCount = parseNumber();
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE) {
+            throw error("invalid size " + width + "x" + height);
+        }
+        var spaces = width * height;
+
+        var game = new Game(width, height, mineCount, 0, true);
+
+        // mines, eight spaces to a byte
+        if (decode() != (spaces + 7) / 8) {
+            throw error("mines do not match the size");
+        }
+        var placed = 0;
+        var index = 0;
+        for (var y = 0; y < height; y++) {
+            var row = game.mines[y];
+            for (var x = 0; x < width; x++, index++) {
+                if ((decoded[index >> 3] & (1 << (index & 7))) != 0) {
+                    row[x] = true;
+                    placed++;
+                }
+            }
+        }
+        if (placed != mineCount) {
+            throw error(placed + " mines, expected " + mineCount);
+        }
+        game.firstClick = placed == 0;
+
+        // pieces are optional
+        if (position < lineLength) {
+            if (decode() != spaces) {
+                throw error("pieces do not match the size");
+            }
+            // won once every safe space shows its number, lost if a mine went off
+            var hidden = 0;
+            index = 0;
+            for (var y = 0; y < height; y++) {
+                var row = game.board[y];
+                var mines = game.mines[y];
+                for (var x = 0; x < width; x++, index++) {
+                    var code = decoded[index] & 0xFF;
+                    if (code > PIECES.length) {
+                        throw error("invalid piece " + code);
+                    }
+                    var piece = code == 0 ? null : PIECES[code - 1];
+                    row[x] = piece;
+                    if (piece == Piece.FLAG || piece == Piece.FLAG_NOT) {
+                        game.flagCount++;
+                    } else if (piece == Piece.MINE_RED) {
+                        game.gameOver = true;
+                    }
+                    if (!mines[x] && (piece == null || !piece.isNumber())) {
+                        hidden++;
+                    }
+                }
+            }
+            if (hidden == 0 && !game.gameOver) {
+                game.gameOver = true;
+                game.victory = true;
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Gets the number of the line last read, starting at 1
+     *
+     * @return line number
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /* Internal use */
+
+    /**
+     * Copies the next line into the line buffer, without the line break
+     *
+     * @return false at the end of the input
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (endOfInput) {
+                    if (lineLength == 0) {
+                        return false;
+                    }
+                    break;
+                }
+                buffer.clear();
+                endOfInput = channel.read(buffer) < 0;
+                buffer.flip();
+                continue;
+            }
+
+            var b = buffer.get();
+            if (b == '\n') {
+                break;
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = b;
+        }
+
+        // allow windows line breaks
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        lineNumber++;
+        return true;
+    }
+
+    private int parseNumber() throws IOException {
+        var value = 0L;
+        var start = position;
+        while (position < lineLength && line[position] != ' ') {
+            var digit = line[position++] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw error("expected a number");
+            }
+            value = value * 10 + digit;
+        }
+        if (position == start || value > Integer.MAX_VALUE) {
+            throw error("expected a number");
+        }
+        position++;
+        return (int) value;
+    }
+
+    /**
+     * Decodes the next base64 field of the line into the decoded buffer
+     *
+     * @return number of bytes decoded
+     */
+    private int decode() throws IOException {
+        var start = position;
+        var end = start;
+        while (end < lineLength && line[end] != ' ') {
+            end++;
+        }
+        position = end + 1;
+
+        // padding only changes the length
+        var length = end - start;
+        if (length % 4 != 0) {
+            throw error("base64 length is not a multiple of 4");
+        }
+        var padding = 0;
+        while (padding < 2 && length - padding > 0 && line[start + length - padding - 1] == '=') {
+            padding++;
+        }
+        var size = length / 4 * 3 - padding;
+        if (decoded.length < size) {
+            decoded = new byte[size];
+        }
+
+        var out = 0;
+        var quantum = 0;
+        var count = 0;
+        for (var i = start; i < end - padding; i++) {
+            var c = line[i];
+            var value = c < 0 ? -1 : BASE64[c];
+            if (value < 0) {
+                throw error("invalid base64");
+            }
+            quantum = (quantum << 6) | value;
+            if (++count == 4) {
+                decoded[out++] = (byte) (quantum >> 16);
+                decoded[out++] = (byte) (quantum >> 8);
+                decoded[out++] = (byte) quantum;
+                quantum = 0;
+                count = 0;
+            }
+        }
+        if (count == 3) {
+            decoded[out++] = (byte) (quantum >> 10);
+            decoded[out++] = (byte) (quantum >> 2);
+        } else if (count == 2) {
+            decoded[out++] = (byte) (quantum >> 4);
+        }
+        return out;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+}
@@ -0,0 +1,193 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Writes boards as text, one board per line, for moving large sets of boards
+ * in and out of other tools
+ * <br>
+ * Each line is the width, height and mine count, then the mines as base64 of
+ * one bit per space in row order, the same packing as {@link GameSnapshot},
+ * and optionally the pieces as base64 of one byte per space (0 for covered,
+ * otherwise the piece ordinal plus one), all separated by single spaces.
+ * <br>
+ * Lines go through one fixed buffer into the channel and the encode buffers
+ * are reused between boards, so any number of boards are written in constant memory.
+ */
+public class BoardTextWriter implements Closeable, Flushable {
+    // data
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final boolean withPieces;
+    private final Base64.Encoder encoder = Base64.getEncoder();
+
+    // reused between boards of the same size
+    private byte[] bits = new byte[0];
+    private byte[] pieces = new byte[0];
+    private byte[] encoded = new byte[0];
+    private final byte[] digits = new byte[11];
+    private long boards;
+
+    /**
+     * Creates a writer that replaces a file
+     *
+     * @param file       File to write
+     * @param withPieces Whether to write the pieces as well as the mines
+     * @throws IOException If the file cannot be opened
+     */
+    public BoardTextWriter(Path file, boolean withPieces) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), withPieces);
+    }
+
+    /**
+     * Creates a writer over a channel, closed along with the writer
+     *
+     * @param channel    Destination
+     * @param withPieces Whether to write the pieces as well as the mines
+     */
+    public BoardTextWriter(WritableByteChannel channel, boolean withPieces) {
+        this.channel = channel;
+        this.withPieces = withPieces;
+    }
+
+    /**
+     * Writes one board as a line. The text form has no topology, so only
+     * square boards can be written
+     *
+     * @param game Board to write
+     * @throws IOException If the channel fails
+     */
+    public void write(GameBase game) throws IOException {
+        if (game.getTopology() != Topology.SQUARE) {
+            throw new IllegalArgumentException("Only square boards can be written as text");
+        }
+        game.settle();
+        var width = game.width;
+        var height = game.height;
+
+        putNumber(width);
+        put((byte) ' ');
+        putNumber(height);
+        put((byte) ' ');
+        putNumber(game.mineCount);
+        put((byte) ' ');
+
+        resize(width * height);
+
+        // mines, eight spaces to a byte
+        Arrays.fill(bits, (byte) 0);
+        var index = 0;
+        for (var y = 0; y < height; y++) {
+            var row = game.mines[y];
+            for (var x = 0; x < width; x++, index++) {
+                if (row[x]) {
+                    bits[index >> 3] |= 1 << (index & 7);
+                }
+            }
+        }
+        putBase64(bits);
+
+        if (withPieces) {
+            put((byte) ' ');
+            index = 0;
+            for (var y = 0; y < height; y++) {
+                var row = game.board[y];
+                for (var x = 0; x < width; x++, index++) {
+                    pieces[index] = (byte) (row[x] == null ? 0 : row[x].ordinal() + 1);
+                }
+            }
+            putBase64(pieces);
+        }
+
+        put((byte) '\n');
+        boards++;
+    }
+
+    /**
+     * Gets the number of boards written
+     *
+     * @return boards written
+     */
+    public long getBoards() {
+        return boards;
+    }
+
+    /**
+     * Writes out anything still buffered
+     *
+     * @throws IOException If the channel fails
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /* Internal use */
+
+    /**
+     * Sizes the buffers for a board, only allocating when the size changes
+     *
+     * @param spaces Spaces on the board
+     */
+    private void resize(int spaces) {
+        if (pieces.length != spaces) {
+            bits = new byte[(spaces + 7) / 8];
+            pieces = new byte[spaces];
+            encoded = new byte[4 * ((spaces + 2) / 3)];
+        }
+    }
+
+    private void putBase64(byte[] bytes) throws IOException {
+        var size = encoder.encode(bytes, encoded);
+        var offset = 0;
+        while (offset < size) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            var count = Math.min(size - offset, buffer.remaining());
+            buffer.put(encoded, offset, count);
+            offset += count;
+        }
+    }
+
+    private void putNumber(int value) throws IOException {
+        var start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (var i = start; i < digits.length; i++) {
+            put(digits[i]);
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+}
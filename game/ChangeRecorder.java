@@ -0,0 +1,214 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.util.Arrays;
+
+/**
+ * Collects the changes of one operation as primitive cell indexes or a
+ * whole-board flag, which become a single {@link BoardChangeEvent} when it finishes
+ * <br>
+ * A bulk change such as a large reveal is turned into row runs as the event
+ * is built. The cells go into a bitmap, which drops any cell recorded twice,
+ * and every stretch of neighboring cells in a row becomes one run.
+ */
+final class ChangeRecorder {
+    // cells recorded before the changes are turned into runs, at least this
+    // many and at least one for every 16 words of the bitmap scanned
+    private static final int RUN_CELLS = 256;
+
+    // data
+    private int[] cells = new int[64];
+    private int cellCount;
+    private boolean wholeBoard;
+
+    // runs built from the cells as (row, first x, last x) triples, and one bit
+    // per space, only set while building them, both reused between events
+    private int[] runs = new int[0];
+    private int runCount;
+    private long[] seen;
+
+    // end of game reveal, the spaces in exactly one of the two sets
+    private BitBoard revealMines, revealFlags;
+
+    /**
+     * Records a single changed cell
+     *
+     * @param index Cell index, {@code y * width + x}
+     */
+    void cell(int index) {
+        if (wholeBoard) {
+            return;
+        }
+        if (cellCount == cells.length) {
+            cells = Arrays.copyOf(cells, cellCount * 2);
+        }
+        cells[cellCount++] = index;
+    }
+
+    /**
+     * Records every space on the board as changed, in constant time
+     * whatever the size of the board
+     */
+    void wholeBoard() {
+        // anything recorded so far or later is covered
+        cellCount = 0;
+        wholeBoard = true;
+        revealMines = null;
+        revealFlags = null;
+    }
+
+    /**
+     * Records the end of game reveal without listing its spaces: every mine
+     * without a flag and every flag without a mine. The sets are copied, a
+     * word per 64 spaces, so the event keeps describing this game after the
+     * board is reset
+     *
+     * @param mines Mines on the board
+     * @param flags Flags on the board
+     */
+    void minesRevealed(BitBoard mines, BitBoard flags) {
+        if (!wholeBoard) {
+            revealMines = mines.copy();
+            revealFlags = flags.copy();
+        }
+    }
+
+    /**
+     * Checks if nothing was recorded
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+        return cellCount == 0 && !wholeBoard && revealMines == null;
+    }
+
+    /**
+     * Counts every change recorded, including the end of game reveal. A cell
+     * recorded twice counts twice
+     *
+     * @param width  Width of the board
+     * @param height Height of the board
+     * @return number of changes
+     */
+    long size(int width, int height) {
+        if (wholeBoard) {
+            return (long) width * height;
+        }
+        long size = cellCount;
+        if (revealMines != null) {
+            size += revealMines.differenceCount(revealFlags);
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of single cells recorded
+     *
+     * @return number of cells
+     */
+    int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Clears the recorded changes
+     */
+    void clear() {
+        cellCount = 0;
+        runCount = 0;
+        wholeBoard = false;
+        revealMines = null;
+        revealFlags = null;
+    }
+
+    /**
+     * Turns the recorded changes into an event, then clears them
+     *
+     * @param width         Width of the board
+     * @param height        Height of the board
+     * @param previousState State before the operation
+     * @param state         State after the operation
+     * @param remaining     Remaining mines after the operation
+     * @return the event, or null if there were no changes and no state change
+     */
+    BoardChangeEvent build(int width, int height, GameState previousState, GameState state, int remaining) {
+        if (isEmpty() && previousState == state) {
+            return null;
+        }
+        var words = (int) (((long) width * height + 63) >>> 6);
+        BoardChangeEvent event;
+        if (!wholeBoard && cellCount >= Math.max(RUN_CELLS, words / 16)) {
+            event = buildRuns(width, height, words, previousState, state, remaining);
+        } else {
+            event = new BoardChangeEvent(width, height, Arrays.copyOf(cells, cellCount), new int[0],
+                    wholeBoard, revealMines, revealFlags, previousState, state, remaining);
+        }
+        clear();
+        return event;
+    }
+
+    /**
+     * Turns the recorded cells into row runs, keeping the cells that stand alone
+     */
+    private BoardChangeEvent buildRuns(int width, int height, int words, GameState previousState,
+                                       GameState state, int remaining) {
+        if (seen == null || seen.length < words) {
+            seen = new long[words];
+        }
+        for (var i = 0; i < cellCount; i++) {
+            var cell = cells[i];
+            seen[cell >>> 6] |= 1L << cell;
+        }
+
+        // the cells are read back from the bitmap, so the array is free for the single cells
+        cellCount = 0;
+        var start = -1;
+        var end = -2;
+        for (var word = 0; word < words; word++) {
+            var bits = seen[word];
+            if (bits == 0) {
+                continue;
+            }
+            seen[word] = 0;
+            while (bits != 0) {
+                var index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                // a run carries on to the next cell unless that starts a new row
+                if (index == end + 1 && index % width != 0) {
+                    end = index;
+                    continue;
+                }
+                addRun(width, start, end);
+                start = index;
+                end = index;
+            }
+        }
+        addRun(width, start, end);
+
+        return new BoardChangeEvent(width, height, Arrays.copyOf(cells, cellCount),
+                Arrays.copyOf(runs, runCount * 3), false, revealMines, revealFlags,
+                previousState, state, remaining);
+    }
+
+    /**
+     * Adds a stretch of changed cells in one row, as a single cell if it is one long
+     *
+     * @param start First cell index, or -1 for none
+     * @param end   Last cell index, inclusive
+     */
+    private void addRun(int width, int start, int end) {
+        if (start < 0) {
+            return;
+        }
+        if (start == end) {
+            cells[cellCount++] = start;
+            return;
+        }
+        if (runCount * 3 + 3 > runs.length) {
+            runs = Arrays.copyOf(runs, Math.max(48, runs.length * 2));
+        }
+        runs[runCount * 3] = start / width;
+        runs[runCount * 3 + 1] = start % width;
+        runs[runCount * 3 + 2] = end % width;
+        runCount++;
+    }
+}
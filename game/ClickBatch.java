@@ -0,0 +1,94 @@
+package edu.wou.cs361.minesweeper.game;
+
+import edu.wou.cs361.minesweeper.model.Space;
+
+import java.util.Arrays;
+
+/**
+ * A list of clicks for {@link IGame#handleClicks(ClickBatch)}, stored as
+ * (x, y, action) triples in one int array so a batch can be refilled and
+ * reused without making an object per click
+ */
+public final class ClickBatch {
+    private static final IGame.ClickAction[] ACTIONS = IGame.ClickAction.values();
+
+    // data
+    private int[] clicks = new int[48];
+    private int size;
+
+    /**
+     * Adds a click to the end of the batch
+     *
+     * @param x      X value of the space
+     * @param y      Y value of the space
+     * @param action Type of click
+     * @return this batch
+     */
+    public ClickBatch add(int x, int y, IGame.ClickAction action) {
+        if (size * 3 + 3 > clicks.length) {
+            clicks = Arrays.copyOf(clicks, clicks.length * 2);
+        }
+        clicks[size * 3] = x;
+        clicks[size * 3 + 1] = y;
+        clicks[size * 3 + 2] = action.ordinal();
+        size++;
+        return this;
+    }
+
+    /**
+     * Adds a click to the end of the batch
+     *
+     * @param space  Space to click
+     * @param action Type of click
+     * @return this batch
+     */
+    public ClickBatch add(Space space, IGame.ClickAction action) {
+        return add(space.getX(), space.getY(), action);
+    }
+
+    /**
+     * Gets the number of clicks
+     *
+     * @return number of clicks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the X value of a click
+     *
+     * @param i Click number, from 0 to {@link #size()}
+     * @return x
+     */
+    public int getX(int i) {
+        return clicks[i * 3];
+    }
+
+    /**
+     * Gets the Y value of a click
+     *
+     * @param i Click number, from 0 to {@link #size()}
+     * @return y
+     */
+    public int getY(int i) {
+        return clicks[i * 3 + 1];
+    }
+
+    /**
+     * Gets the type of a click
+     *
+     * @param i Click number, from 0 to {@link #size()}
+     * @return click action
+     */
+    public IGame.ClickAction getAction(int i) {
+        return ACTIONS[clicks[i * 3 + 2]];
+    }
+
+    /**
+     * Removes every click, keeping the storage for the next batch
+     */
+    public void clear() {
+        size = 0;
+    }
+}
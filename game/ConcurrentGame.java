@@ -0,0 +1,757 @@
+package edu.wou.cs361.minesweeper.game;
+
+import edu.wou.cs361.minesweeper.model.Piece;
+import edu.wou.cs361.minesweeper.model.Space;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Minesweeper game that many players can click at the same time without locks
+ * <br>
+ * Every space is a slot in an {@link AtomicIntegerArray} holding the piece code
+ * (0 for covered, otherwise the piece ordinal plus one). Each change is a
+ * compare and set, so when two flood fills meet only one of them reveals each
+ * space, and only the player whose change succeeded publishes it. Every
+ * successful change is offered exactly once to the update queue of every
+ * player who joined, and only players who joined have a queue, so a game
+ * nobody polls keeps nothing. A flag reserves its place in the flag count
+ * before it claims the space, so the flags never outnumber the mines however
+ * many players flag at once.
+ * <br>
+ * {@link #newGame()} and {@link #restart()} are not meant to race with clicks.
+ */
+public class ConcurrentGame implements IGame {
+    private static final long serialVersionUID = 1L;
+
+    // game states
+    private static final int PLAYING = 0;
+    private static final int LOST = 1;
+    private static final int WON = 2;
+
+    // mine generation states
+    private static final int NO_MINES = 0;
+    private static final int GENERATING = 1;
+    private static final int READY = 2;
+
+    // piece codes
+    private static final int COVERED = 0;
+    private static final Piece[] PIECES = Piece.values();
+
+    // board dimensions
+    private final int width;
+    private final int height;
+    private final int mineCount;
+    private final int cheats;
+
+    // board data
+    private final AtomicIntegerArray cells;
+    private volatile boolean[] mines;
+    private final AtomicInteger mineState = new AtomicInteger(NO_MINES);
+    private final AtomicInteger state = new AtomicInteger(PLAYING);
+    private final AtomicInteger revealed = new AtomicInteger();
+    private final AtomicInteger flagCount = new AtomicInteger();
+
+    // update queues by player ID, null until the player joins or after they
+    // leave, the first is made by getUpdates(), written out by writeObject
+    private transient CopyOnWriteArrayList<Queue<Space>> players;
+    private transient CopyOnWriteArrayList<BoardListener> listeners;
+
+    /**
+     * Creates a new shared board with the specified dimensions
+     *
+     * @param width     Width of the board
+     * @param height    Height of the board
+     * @param mineCount Total mines
+     * @param cheats    Cheats allowed
+     */
+    public ConcurrentGame(int width, int height, int mineCount, int cheats) {
+        this.width = width;
+        this.height = height;
+        this.mineCount = mineCount;
+        this.cheats = cheats;
+        this.cells = new AtomicIntegerArray(width * height);
+        this.mines = new boolean[width * height];
+        this.players = new CopyOnWriteArrayList<>();
+        // the first player's queue is only made once getUpdates() asks for it
+        this.players.add(null);
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Adds another player. Their queue receives every change made after joining
+     *
+     * @return the player's ID, used with {@link #getUpdates(int)}
+     */
+    public int join() {
+        synchronized (this) {
+            players.add(new ConcurrentLinkedQueue<>());
+            return players.size() - 1;
+        }
+    }
+
+    /**
+     * Removes a player, dropping their queue so changes stop collecting for them
+     *
+     * @param player Player ID from {@link #join()}
+     */
+    public void leave(int player) {
+        synchronized (this) {
+            if (player >= 0 && player < players.size()) {
+                players.set(player, null);
+            }
+        }
+    }
+
+    /**
+     * Gets the spaces pending update for a specific player
+     *
+     * @param player Player ID from {@link #join()}, 0 for the first player
+     * @return the player's queue of changed spaces
+     * @throws NoSuchElementException If the player never joined or has left
+     */
+    public Queue<Space> getUpdates(int player) {
+        if (player == 0) {
+            return getUpdates();
+        }
+        var queue = player > 0 && player < players.size() ? players.get(player) : null;
+        if (queue == null) {
+            throw new NoSuchElementException("Unknown player " + player);
+        }
+        return queue;
+    }
+
+    /**
+     * Creates a new game with the same width and height dimensions,
+     * resets the game data, and update the spaces
+     */
+    @Override
+    public void newGame() {
+        var changes = new ChangeRecorder();
+        var previousState = GameState.of(this);
+        reset(changes);
+        mines = new boolean[width * height];
+        mineState.set(NO_MINES);
+        fireChanges(changes, previousState);
+    }
+
+    /**
+     * Restarts the current game
+     * If we haven't clicked yet, do nothing.
+     * Reset the game data and update the spaces
+     */
+    @Override
+    public void restart() {
+        var changes = new ChangeRecorder();
+        var previousState = GameState.of(this);
+        reset(changes);
+        fireChanges(changes, previousState);
+    }
+
+    private void reset(ChangeRecorder changes) {
+        for (var i = 0; i < cells.length(); i++) {
+            if (cells.getAndSet(i, COVERED) != COVERED) {
+                publish(i, changes);
+            }
+        }
+        flagCount.set(0);
+        revealed.set(0);
+        state.set(PLAYING);
+    }
+
+    /**
+     * Handle standard game clicks
+     * if game is over, do nothing. Otherwise, handle all possible ClickActions
+     *
+     * @param space  Space clicked
+     * @param action Type of click
+     */
+    @Override
+    public void handleClick(Space space, ClickAction action) {
+        if (state.get() != PLAYING || !isValid(space)) {
+            return;
+        }
+
+        var changes = new ChangeRecorder();
+        applyClick(space.getY() * width + space.getX(), action, changes);
+        fireChanges(changes, GameState.PLAYING);
+    }
+
+    /**
+     * Handles a list of clicks as one event. Other players' clicks can still
+     * land between them, only the notification is shared
+     *
+     * @param batch Clicks to handle
+     * @return how many clicks were handled, the changes made and the final state
+     */
+    @Override
+    public BatchResult handleClicks(ClickBatch batch) {
+        var changes = new ChangeRecorder();
+        var previousState = GameState.of(this);
+        var applied = 0;
+        for (var i = 0; i < batch.size() && state.get() == PLAYING; i++) {
+            var x = batch.getX(i);
+            var y = batch.getY(i);
+            if (x >= 0 && y >= 0 && x < width && y < height) {
+                applyClick(y * width + x, batch.getAction(i), changes);
+            }
+            applied++;
+        }
+        var changed = changes.size(width, height);
+        fireChanges(changes, previousState);
+        return new BatchResult(applied, changed, GameState.of(this));
+    }
+
+    private void applyClick(int index, ClickAction action, ChangeRecorder changes) {
+        switch (action) {
+            case DEFAULT:
+                handleDefaultClick(index, changes);
+                break;
+            case FLAG:
+                handleFlagClick(index, changes);
+                break;
+            case MARK:
+                handleMarkClick(index, changes);
+                break;
+            case CHEAT:
+                break;
+        }
+    }
+
+    private void handleDefaultClick(int index, ChangeRecorder changes) {
+        ensureMines(index);
+
+        var piece = decode(cells.get(index));
+        if (piece != null && piece.isNumber()) {
+            // chord when the flags around the number match it
+            var neighbors = new int[8];
+            var count = neighbors(index, neighbors);
+            var flags = 0;
+            for (var i = 0; i < count; i++) {
+                if (cells.get(neighbors[i]) == code(Piece.FLAG)) {
+                    flags++;
+                }
+            }
+            if (flags == piece.getNumber()) {
+                for (var i = 0; i < count; i++) {
+                    reveal(neighbors[i], changes);
+                }
+            }
+        } else {
+            reveal(index, changes);
+        }
+    }
+
+    /**
+     * Reveals a space, flooding outwards from empty spaces. Spaces are claimed
+     * by compare and set, so fills from other players merge without revealing
+     * anything twice
+     *
+     * @param start   Index of the space to reveal
+     * @param changes Changes made by the current operation
+     */
+    private void reveal(int start, ChangeRecorder changes) {
+        var stack = new int[16];
+        var size = 0;
+        var neighbors = new int[8];
+        stack[size++] = start;
+
+        while (size > 0 && state.get() == PLAYING) {
+            var index = stack[--size];
+            var current = cells.get(index);
+            if (!replaceable(current)) {
+                continue;
+            }
+
+            if (mines[index]) {
+                if (cells.compareAndSet(index, current, code(Piece.MINE_RED))) {
+                    publish(index, changes);
+                    endGame(LOST, changes);
+                } else {
+                    // marked or unmarked meanwhile, look again
+                    stack[size++] = index;
+                }
+                continue;
+            }
+
+            var count = neighbors(index, neighbors);
+            var number = 0;
+            for (var i = 0; i < count; i++) {
+                if (mines[neighbors[i]]) {
+                    number++;
+                }
+            }
+
+            // the space changed under us, look again. It is only skipped once it
+            // holds a number, then another player revealed it and owns the fill from it
+            if (!cells.compareAndSet(index, current, code(Piece.fromNumber(number)))) {
+                stack[size++] = index;
+                continue;
+            }
+            publish(index, changes);
+
+            if (revealed.incrementAndGet() == width * height - mineCount) {
+                endGame(WON, changes);
+                return;
+            }
+
+            if (number == 0) {
+                if (size + count > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, size + count));
+                }
+                for (var i = 0; i < count; i++) {
+                    stack[size++] = neighbors[i];
+                }
+            }
+        }
+    }
+
+    private void handleFlagClick(int index, ChangeRecorder changes) {
+        while (true) {
+            var current = cells.get(index);
+            var piece = decode(current);
+            int next;
+            if (piece == Piece.FLAG) {
+                next = code(Piece.MARK_RED);
+            } else if (piece != null && piece.isMark()) {
+                next = COVERED;
+            } else if (replaceable(current)) {
+                // the count is taken before the space, so it never passes the mines
+                if (!reserveFlag()) {
+                    return;
+                }
+                next = code(Piece.FLAG);
+            } else {
+                return;
+            }
+
+            if (cells.compareAndSet(index, current, next)) {
+                if (piece == Piece.FLAG) {
+                    flagCount.decrementAndGet();
+                }
+                publish(index, changes);
+                return;
+            }
+            // another player changed the space first, give the flag back and look again
+            if (next == code(Piece.FLAG)) {
+                flagCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Takes one flag from the count if any are left
+     *
+     * @return true if a flag was taken
+     */
+    private boolean reserveFlag() {
+        while (true) {
+            var flags = flagCount.get();
+            if (flags >= mineCount) {
+                return false;
+            }
+            if (flagCount.compareAndSet(flags, flags + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void handleMarkClick(int index, ChangeRecorder changes) {
+        while (true) {
+            var current = cells.get(index);
+            var piece = decode(current);
+            int next;
+            if (piece == Piece.MARK_RED) {
+                next = code(Piece.MARK_GREEN);
+            } else if (piece == Piece.MARK_GREEN) {
+                next = code(Piece.MARK_BLUE);
+            } else if (piece == Piece.MARK_BLUE) {
+                next = code(Piece.MARK_RED);
+            } else if (replaceable(current)) {
+                next = code(Piece.MARK_RED);
+            } else {
+                return;
+            }
+
+            if (cells.compareAndSet(index, current, next)) {
+                publish(index, changes);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Places the mines on the first click. The first player to click generates
+     * them while any others wait for the mines to be ready
+     *
+     * @param safe Index of the clicked space, kept clear along with its neighbors
+     */
+    private void ensureMines(int safe) {
+        if (mineState.get() == READY) {
+            return;
+        }
+        if (mineState.compareAndSet(NO_MINES, GENERATING)) {
+            var field = new boolean[width * height];
+            var neighbors = new int[8];
+            var count = neighbors(safe, neighbors);
+            var random = new Random();
+            var placed = 0;
+            while (placed < mineCount) {
+                var index = random.nextInt(width * height);
+                if (index == safe || field[index] || contains(neighbors, count, index)) {
+                    continue;
+                }
+                field[index] = true;
+                placed++;
+            }
+            mines = field;
+            mineState.set(READY);
+            return;
+        }
+        while (mineState.get() != READY) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Ends the game once. Only the player who changes the state reveals the mines
+     *
+     * @param result  LOST or WON
+     * @param changes Changes made by the current operation
+     */
+    private void endGame(int result, ChangeRecorder changes) {
+        if (!state.compareAndSet(PLAYING, result)) {
+            return;
+        }
+
+        var mine = code(result == WON ? Piece.MINE_GREEN : Piece.MINE_RED);
+        for (var i = 0; i < cells.length(); i++) {
+            var current = cells.get(i);
+            var piece = decode(current);
+            if (mines[i]) {
+                if ((piece == null || piece.isMark()) && cells.compareAndSet(i, current, mine)) {
+                    publish(i, changes);
+                }
+            } else if (piece == Piece.FLAG && cells.compareAndSet(i, current, code(Piece.FLAG_NOT))) {
+                publish(i, changes);
+            }
+        }
+    }
+
+    /* Internal use */
+
+    private void publish(int index, ChangeRecorder changes) {
+        Space space = null;
+        for (var queue : players) {
+            if (queue != null) {
+                if (space == null) {
+                    space = new Space(index % width, index / width);
+                }
+                queue.offer(space);
+            }
+        }
+        changes.cell(index);
+    }
+
+    /**
+     * Sends the changes made by one player's operation to the listeners
+     *
+     * @param changes       Changes the operation made
+     * @param previousState State when the operation started
+     */
+    private void fireChanges(ChangeRecorder changes, GameState previousState) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        var event = changes.build(width, height, previousState, GameState.of(this), getRemainingMines());
+        if (event != null) {
+            for (var listener : listeners) {
+                listener.boardChanged(event);
+            }
+        }
+    }
+
+    /**
+     * Fills an array with the indexes of the spaces around a space
+     *
+     * @param index     Index of the center space
+     * @param neighbors Array of at least 8 to fill
+     * @return number of neighbors written
+     */
+    private int neighbors(int index, int[] neighbors) {
+        var x = index % width;
+        var y = index / width;
+        var count = 0;
+        for (var dy = -1; dy <= 1; dy++) {
+            var ny = y + dy;
+            if (ny < 0 || ny >= height) {
+                continue;
+            }
+            for (var dx = -1; dx <= 1; dx++) {
+                var nx = x + dx;
+                if ((dx == 0 && dy == 0) || nx < 0 || nx >= width) {
+                    continue;
+                }
+                neighbors[count++] = ny * width + nx;
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (var i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int code(Piece piece) {
+        return piece == null ? COVERED : piece.ordinal() + 1;
+    }
+
+    private static Piece decode(int code) {
+        return code == COVERED ? null : PIECES[code - 1];
+    }
+
+    private static boolean replaceable(int code) {
+        return code == COVERED || PIECES[code - 1].isReplaceable();
+    }
+
+    /**
+     * Writes the game with each player's pending spaces as cell indexes, so
+     * a saved game still hands every change to its players once read back.
+     * Not meant to race with clicks. The server never parks a shared game on
+     * disk, its players can click at any moment
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(players.size());
+        for (var queue : players) {
+            if (queue == null) {
+                out.writeInt(-1);
+                continue;
+            }
+            var pending = queue.toArray(new Space[0]);
+            out.writeInt(pending.length);
+            for (var space : pending) {
+                out.writeInt(space.getY() * width + space.getX());
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        players = new CopyOnWriteArrayList<>();
+        var count = in.readInt();
+        for (var player = 0; player < count; player++) {
+            var pending = in.readInt();
+            if (pending < 0) {
+                players.add(null);
+                continue;
+            }
+            var queue = new ConcurrentLinkedQueue<Space>();
+            for (var i = 0; i < pending; i++) {
+                var index = in.readInt();
+                queue.add(new Space(index % width, index / width));
+            }
+            players.add(queue);
+        }
+        listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Gets the piece on the specified space
+     * If the space is invalid, return null, otherwise, return the piece
+     * on the specified space
+     *
+     * @param space Space to check for a piece
+     * @return the piece on the specified space
+     */
+    @Override
+    public Piece getPiece(Space space) {
+        if (!isValid(space)) {
+            return null;
+        }
+        return decode(cells.get(space.getY() * width + space.getX()));
+    }
+
+    @Override
+    public Piece getPiece(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return null;
+        }
+        return decode(cells.get(y * width + x));
+    }
+
+    /**
+     * Determines if a space appears enabled, or pressed up
+     * If a space is invalid, return false, otherwise, get the piece
+     * If the piece is null, that means the space is empty and pops up, so return true
+     * Default, just return piece.isEnabled() value
+     *
+     * @param space Space to check
+     * @return True if the space appears enabled
+     */
+    @Override
+    public boolean isEnabled(Space space) {
+        if (!isValid(space)) {
+            return false;
+        }
+        var piece = getPiece(space);
+        return piece == null || piece.isEnabled();
+    }
+
+    /**
+     * Gets the number of mines left on the board. This should equal
+     * the mineCount - flagCount
+     *
+     * @return number of mines remaining
+     */
+    @Override
+    public int getRemainingMines() {
+        return mineCount - flagCount.get();
+    }
+
+    /**
+     * Gets the total number of mines on the board
+     *
+     * @return total mines (mineCount)
+     */
+    @Override
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    /**
+     * Gets the 3BV of the board
+     *
+     * @return 3BV of the board, or -1 before the first click places the mines
+     */
+    @Override
+    public int getBoardValue() {
+        if (mineState.get() != READY) {
+            return -1;
+        }
+        return new BoardAnalyzer(width, height).analyze(mines).getBoardValue();
+    }
+
+    /**
+     * Gets the width of the board
+     *
+     * @return The width of the board
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board
+     *
+     * @return The height of the board
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if the player has used their cheat
+     *
+     * @return if the player has cheats left (cheats > 0)
+     */
+    @Override
+    public boolean canCheat() {
+        return cheats > 0;
+    }
+
+    /**
+     * Checks if the game ended
+     *
+     * @return true if the game ended
+     */
+    @Override
+    public boolean gameOver() {
+        return state.get() != PLAYING;
+    }
+
+    /**
+     * Checks how many cheats the player has left
+     *
+     * @return remaining cheats
+     */
+    @Override
+    public int getCheats() {
+        return cheats;
+    }
+
+    /**
+     * Checks if the player won the game
+     *
+     * @return true if the players won the game
+     */
+    @Override
+    public boolean hasWon() {
+        return state.get() == WON;
+    }
+
+    /**
+     * Checks if a space is within the bounds of this board
+     *
+     * @param space Space to check
+     * @return true if the space is within this board
+     */
+    @Override
+    public boolean isValid(Space space) {
+        return space != null && space.getX() >= 0 && space.getY() >= 0
+                && space.getX() < width && space.getY() < height;
+    }
+
+    /**
+     * Adds a listener called with the changes of every operation. Each player's
+     * operation is sent as its own event, on that player's thread
+     *
+     * @param listener Listener to add
+     */
+    @Override
+    public void addBoardListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeBoardListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the spaces pending update for the first player, who joins on the
+     * first call and only sees the changes made from then on
+     *
+     * @return the first player's queue of changed spaces
+     */
+    @Override
+    public Queue<Space> getUpdates() {
+        var queue = players.get(0);
+        if (queue == null) {
+            synchronized (this) {
+                queue = players.get(0);
+                if (queue == null) {
+                    queue = new ConcurrentLinkedQueue<>();
+                    players.set(0, queue);
+                }
+            }
+        }
+        return queue;
+    }
+}
@@ -1,14 +1,53 @@
 package edu.wou.cs361.minesweeper.game;
 
+import edu.wou.cs361.minesweeper.metrics.FloodFillEvent;
+import edu.wou.cs361.minesweeper.metrics.GameMetrics;
+import edu.wou.cs361.minesweeper.metrics.RevealMinesEvent;
 import edu.wou.cs361.minesweeper.model.Piece;
 import edu.wou.cs361.minesweeper.model.Space;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Contains all the visible pieces in the Minesweeper Game
  */
 public class Game extends GameBase {
+    // the value the first release computed, every field added since reads as optional
+    private static final long serialVersionUID = 1425502521525836118L;
+
+    // how the spaces connect, older saves without one are square
+    private Topology topology;
+
+    // neighbors of every space, compiled from the topology
+    private transient NeighborTable neighborTable;
+
+    // mines around each space on boards the bit counts do not cover
+    private transient byte[] mineNumbers;
+
+    // 3BV and openings of the current mines
+    private transient BoardAnalysis analysis;
+
+    // bit-row copies of the mines, revealed numbers and flags for whole-board
+    // operations, built from the arrays on first use and kept in step by setPiece
+    private transient BitBoard mineBits, revealedBits, flagBits;
+    private transient BitBoard.NeighborCounts neighborCounts;
+
+    // reset generation, a piece only counts while stale is set if the space was
+    // written in the current epoch, so a reset never has to touch the board
+    private transient int epoch;
+    private transient int[] stamps;
+    private transient boolean stale;
+
+    // piece shown on the mines once the game ends, resolved as each space is read
+    private transient Piece revealedMine;
+
+    // autosave told about every move, while one is open
+    transient GameJournal journal;
+
     /**
      * Creates a new Minesweeper board with the specified dimensions
      *
@@ -18,25 +57,76 @@ public class Game extends GameBase {
      * @param cheats    Cheats allowed
      */
     public Game(int width, int height, int mineCount, int cheats) {
+        this(width, height, mineCount, cheats, Topology.SQUARE);
+    }
+
+    /**
+     * Creates a new Minesweeper board with the specified dimensions and topology
+     *
+     * @param width     Width of the board
+     * @param height    Height of the board
+     * @param mineCount Total mines
+     * @param cheats    Cheats allowed
+     * @param topology  How the spaces connect
+     */
+    public Game(int width, int height, int mineCount, int cheats, Topology topology) {
 
         super(width, height, mineCount, cheats);
+        this.topology = topology;
+        neighborTable = topology.table(width, height);
+        stamps = new int[width * height];
         newGame();
     }
 
+    /**
+     * Creates an empty board without queueing any updates, used when the
+     * pieces and mines are about to be restored from a snapshot
+     *
+     * @param width     Width of the board
+     * @param height    Height of the board
+     * @param mineCount Total mines
+     * @param cheats    Cheats allowed
+     * @param restoring Marker to select this constructor
+     */
+    Game(int width, int height, int mineCount, int cheats, boolean restoring) {
+        this(width, height, mineCount, cheats, Topology.SQUARE, restoring);
+    }
+
+    /**
+     * Creates an empty board of a topology without queueing any updates
+     *
+     * @param width     Width of the board
+     * @param height    Height of the board
+     * @param mineCount Total mines
+     * @param cheats    Cheats allowed
+     * @param topology  How the spaces connect
+     * @param restoring Marker to select this constructor
+     */
+    Game(int width, int height, int mineCount, int cheats, Topology topology, boolean restoring) {
+        super(width, height, mineCount, cheats);
+        this.topology = topology;
+        neighborTable = topology.table(width, height);
+        stamps = new int[width * height];
+        firstClick = true;
+    }
+
     /**
      * Creates a new game with the same width and height dimensions,
-     * resets the game data, and update the spaces
+     * resets the game data, and update the spaces.
+     * Takes the same time on any size of board, the old mines are
+     * replaced when the first click places new ones
      */
     @Override
     public void newGame() {
+        var previousState = GameState.of(this);
         //1.reset the data
         restoreDefaults();
-        //2.rest the mines
-        this.mines = new boolean[height][width];
 
-        //3.make the spaces as all uncovered
-        for(Space space : everySpace()){
-            markUpdate(space);
+        //2.make the spaces as all uncovered, one signal for the whole board
+        changes.wholeBoard();
+        fireChanges(previousState);
+        if(journal != null){
+            journal.reset();
         }
     }
 
@@ -47,32 +137,46 @@ public class Game extends GameBase {
      */
     @Override
     public void restart() {
+        var previousState = GameState.of(this);
         restoreDefaults();
 
-        for(Space space : everySpace()){
-            markUpdate(space);
+        changes.wholeBoard();
+        fireChanges(previousState);
+        if(journal != null){
+            journal.reset();
         }
     }
 
-    private Space[] everySpace() {
-        Space[] everySpace = new Space[height * width];
-        var currentIndex = 0;
-        for(var i = 0; i < height; ++i){
-            for(var j = 0; j < width; ++j){
-                everySpace[currentIndex] = new Space(j, i);
-                ++currentIndex;
+    /**
+     * Resets the game data. The pieces are not cleared, moving to a new epoch
+     * makes every space read as covered until it is written again
+     */
+    public void restoreDefaults(){
+        if(++epoch == 0){
+            // the stamps could repeat after 2^32 resets, so clear for real once
+            for(var row : board){
+                Arrays.fill(row, null);
             }
+            Arrays.fill(stamps, 0);
+            stale = false;
+        } else {
+            stale = true;
         }
-        return everySpace;
-    }
-
-    public void restoreDefaults(){
-        this.board = new Piece[height][width];
         gameOver = false;
         victory = false;
         firstClick = true;
         flagCount = 0;
-        boardUpdates.clear();
+        revealedMine = null;
+        analysis = null;
+        mineBits = null;
+        neighborCounts = null;
+        mineNumbers = null;
+        revealedBits = null;
+        flagBits = null;
+        changes.clear();
+        if(boardUpdates != null){
+            boardUpdates.clear();
+        }
     }
 
     /**
@@ -87,6 +191,32 @@ public class Game extends GameBase {
 
         if(gameOver) { return;}
 
+        applyClick(space, action);
+        fireChanges(GameState.PLAYING);
+    }
+
+    /**
+     * Handles a list of clicks, stopping once the game ends, and sends every
+     * change to the listeners as one event
+     *
+     * @param batch Clicks to handle
+     * @return how many clicks were handled, the changes made and the final state
+     */
+    @Override
+    public BatchResult handleClicks(ClickBatch batch) {
+        var previousState = GameState.of(this);
+        var applied = 0;
+        for(var i = 0; i < batch.size() && !gameOver; i++){
+            applyClick(new Space(batch.getX(i), batch.getY(i)), batch.getAction(i));
+            ++applied;
+        }
+        var changed = changes.size(width, height);
+        fireChanges(previousState);
+        return new BatchResult(applied, changed, GameState.of(this));
+    }
+
+    private void applyClick(Space space, ClickAction action) {
+        var start = System.nanoTime();
         switch (action) {
             case DEFAULT:
                 handleDefaultClick(space);
@@ -101,6 +231,10 @@ public class Game extends GameBase {
                 handleCheatClick(space);
                 break;
         }
+        GameMetrics.get().recordClick(action, System.nanoTime() - start);
+        if(journal != null){
+            journal.clicked(space.getX(), space.getY(), action);
+        }
     }
 
     private void handleDefaultClick(Space space) {
@@ -129,18 +263,19 @@ public class Game extends GameBase {
             activateSpace(space);
         }
 
+         // a lost game is over, and the reveal stays unwritten until something reads the arrays
+         if(gameOver){
+             return;
+         }
          checkVictory();
 
     }
 
     private void checkVictory() {
-        for(Space space : everySpace()){
-            if(!isMine(space)){
-                Piece piece = getPiece(space);
-                if(piece == null || !piece.isNumber()){
-                    return;
-                }
-            }
+        // won once every space is either a mine or a revealed number
+        buildBits();
+        if(!revealedBits.coversBoardWith(mineBits)){
+            return;
         }
         victory = true;
         gameOver = true;
@@ -159,40 +294,89 @@ public class Game extends GameBase {
             return new Space[0];
         }
 
-        Space[] neighbors = new Space[8];
-        var x = space.getX();
-        var y = space.getY();
-        var neighborCount = 0;
-        for(var i = -1; i <= 1; i++){
-            for(var j = -1; j <= 1; j++){
-                if(i == 0 && j == 0){
-                    continue;
-                }
-                Space neighbor = new Space(x+i, y+j);
-                if(isValid(neighbor)){
-                    neighbors[neighborCount] = neighbor;
-                    ++neighborCount;
-                }
-            }
+        var index = space.getY() * width + space.getX();
+        var offsets = neighborTable.offsets(index);
+        Space[] neighbors = new Space[offsets.length];
+        for(var i = 0; i < offsets.length; i++){
+            var neighbor = index + offsets[i];
+            neighbors[i] = new Space(neighbor % width, neighbor / width);
         }
         return neighbors;
     }
 
+    /**
+     * Gets how the spaces of the board connect
+     *
+     * @return the topology
+     */
+    @Override
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the neighbors of every space
+     *
+     * @return the neighbor table
+     */
+    public NeighborTable getNeighborTable() {
+        return neighborTable;
+    }
+
+    /**
+     * Reveals a space, flooding outwards when it has no mines around it.
+     * Boards at or above the parallel threshold fill on a ForkJoinPool,
+     * smaller boards fill on the calling thread
+     *
+     * @param space Space to reveal
+     */
     public void activateSpace(Space space){
         if(!isReplaceable(space)){
             return;
         }
         if(isMine(space)){
             loseGame(space);
+            return;
+        }
+        var event = new FloodFillEvent();
+        event.begin();
+        var revealed = 0;
+        if((long) width * height >= parallelThreshold){
+            revealed = ParallelReveal.reveal(this, space.getX(), space.getY());
+            event.parallel = true;
         } else {
-            Piece tempPiece = getNumber(space);
-            setPiece(space, tempPiece);
-            if(tempPiece == Piece.N0){
-                for(Space neighbor : getNeighbors(space)){
-                    activateSpace(neighbor);
+            // explicit stack, large openings would overflow the call stack
+            Deque<Space> pending = new ArrayDeque<>();
+            pending.push(space);
+            while(!pending.isEmpty()){
+                var current = pending.pop();
+                if(!isReplaceable(current)){
+                    continue;
+                }
+                Piece tempPiece = getNumber(current);
+                setPiece(current, tempPiece);
+                ++revealed;
+                if(tempPiece == Piece.N0){
+                    for(Space neighbor : getNeighbors(current)){
+                        if(isReplaceable(neighbor)){
+                            pending.push(neighbor);
+                        }
+                    }
                 }
             }
         }
+        GameMetrics.get().recordFloodFill(revealed);
+        event.cells = revealed;
+        event.commit();
+    }
+
+    /**
+     * Sets the board size where reveals switch to the parallel fill
+     *
+     * @param cells Number of spaces on the board, width * height
+     */
+    public void setParallelThreshold(int cells) {
+        this.parallelThreshold = cells;
     }
 
     private void loseGame(Space space) {
@@ -200,40 +384,139 @@ public class Game extends GameBase {
         showMines(space, false);
     }
 
+    /**
+     * Shows every mine and wrong flag. Nothing is written to the board, the
+     * pieces are worked out as each space is read, so huge boards end at once
+     * and a view only draws the spaces it shows
+     *
+     * @param thisSpace Mine that was clicked, or null on a win
+     * @param victory   Whether the game was won
+     */
     private void showMines(Space thisSpace, boolean victory) {
         Piece mine = Piece.MINE_RED;
         if(victory){
            mine = Piece.MINE_GREEN;
         }
 
-       for(Space space : everySpace()){
-           if(space.equals(thisSpace)){
-               setPiece(space, mine);
-           }
-           Piece piece = getPiece(space);
-           if(isMine(space)){
-               if(piece == null || piece.isMark()){
-                   setPiece(space, mine);
-               }
-           } else {
-               if(piece == Piece.FLAG){
-                   setPiece(space, Piece.FLAG_NOT);
-               }
-           }
-       }
+       var event = new RevealMinesEvent();
+       event.begin();
+
+       // mines never hold a number, so the spaces that change are the mines without
+       // a flag and the flags without a mine, the clicked mine among them
+       buildBits();
+       revealedMine = mine;
+       changes.minesRevealed(mineBits, flagBits);
+
+       event.victory = victory;
+       event.cells = mineBits.differenceCount(flagBits);
+       event.commit();
+    }
+
+    /**
+     * Gets the piece a space shows after the mines are revealed
+     *
+     * @param x     X value of the space
+     * @param y     Y value of the space
+     * @param piece Piece written on the space
+     * @return the piece to show
+     */
+    private Piece revealed(int x, int y, Piece piece) {
+        if(mines[y][x]){
+            return piece == null || piece.isMark() ? revealedMine : piece;
+        }
+        return piece == Piece.FLAG ? Piece.FLAG_NOT : piece;
+    }
+
+    /**
+     * Gets the 3BV of the board
+     *
+     * @return 3BV of the board, or -1 before the first click places the mines
+     */
+    @Override
+    public int getBoardValue() {
+        var analysis = getAnalysis();
+        return analysis == null ? -1 : analysis.getBoardValue();
+    }
+
+    /**
+     * Gets the 3BV, openings and isolated numbers of the board, worked out
+     * once when the mines are placed
+     *
+     * @return the analysis, or null before the first click places the mines
+     */
+    public BoardAnalysis getAnalysis() {
+        if (firstClick) {
+            return null;
+        }
+        // games restored from a save were never analyzed
+        if (analysis == null) {
+            analysis = analyze();
+        }
+        return analysis;
+    }
+
+    private BoardAnalysis analyze() {
+        if (topology == Topology.SQUARE) {
+            return new BoardAnalyzer(width, height).analyze(mines);
+        }
+        return BoardAnalyzer.analyze(mines, neighborTable);
     }
 
     private Piece getNumber(Space space) {
         if(!isValid(space)){
             return null;
         }
-        var count = 0;
-        for(Space neighbor : getNeighbors(space)){
-            if(isMine(neighbor)){
-                ++count;
+        buildBits();
+        return Piece.fromNumber(mineNumber(space.getX(), space.getY()));
+    }
+
+    /**
+     * Gets the number of mines around a space, for the parallel fill once
+     * {@link #buildBits()} has run
+     *
+     * @param x X value of the space
+     * @param y Y value of the space
+     * @return mines next to the space
+     */
+    int mineNumber(int x, int y) {
+        if(mineNumbers != null){
+            return mineNumbers[y * width + x];
+        }
+        return neighborCounts.get(x, y);
+    }
+
+    /**
+     * Builds the bitboards from the mines and pieces if they are not built yet.
+     * Saves, corpora and text boards write the arrays directly, so the bits are
+     * only made once something needs them. The end of game reveal is left
+     * unwritten, the bits track the pieces the players wrote
+     */
+    void buildBits() {
+        clearStale();
+        if(mineBits == null){
+            mineBits = BitBoard.of(mines);
+            // the shifted rows only match the square neighbors
+            if(topology == Topology.SQUARE){
+                neighborCounts = mineBits.countNeighbors();
+            } else {
+                mineNumbers = neighborTable.countMines(mines);
+            }
+        }
+        if(revealedBits == null){
+            revealedBits = new BitBoard(width, height);
+            flagBits = new BitBoard(width, height);
+            for(var y = 0; y < height; y++){
+                for(var x = 0; x < width; x++){
+                    trackPiece(x, y, board[y][x]);
+                }
             }
         }
-        return Piece.fromNumber(count);
+    }
+
+    private void trackPiece(int x, int y, Piece piece) {
+        revealedBits.set(x, y, piece != null && piece.isNumber());
+        // a wrong flag stays in the set, so the end of game reveal never changes it
+        flagBits.set(x, y, piece == Piece.FLAG || piece == Piece.FLAG_NOT);
     }
 
     private boolean isNumber(Space space) {
@@ -256,27 +539,57 @@ public class Game extends GameBase {
             if (piece == Piece.FLAG) {
                 setPiece(space, Piece.MARK_RED);
                 --flagCount;
-                markUpdate(space);
             } else if (piece != null && piece.isMark()) {
                 setPiece(space, null);
-                markUpdate(space);
             } else if (isReplaceable(space) && flagCount < mineCount) {
                 setPiece(space, Piece.FLAG);
-                markUpdate(space);
                 ++flagCount;
             }
 
     }
 
+    /**
+     * Records a space as changed, sent to the listeners when the operation ends.
+     * Callers mark each change once, scanning for duplicates made large boards quadratic
+     *
+     * @param space Space that changed
+     */
     private void markUpdate(Space space) {
-        if(!boardUpdates.contains(space)){
-            boardUpdates.add(space);
+        markUpdate(space.getY() * width + space.getX());
+    }
+
+    /**
+     * Records a space as changed by its cell index
+     *
+     * @param index Cell index, y * width + x
+     */
+    void markUpdate(int index) {
+        changes.cell(index);
+    }
+
+    /**
+     * Records a space written straight into the board by the parallel fill
+     *
+     * @param index Cell index, y * width + x
+     */
+    void pieceChanged(int index) {
+        var x = index % width;
+        var y = index / width;
+        if(revealedBits != null){
+            trackPiece(x, y, board[y][x]);
         }
+        markUpdate(index);
     }
 
     private void setPiece(Space space, Piece piece) {
         if(isValid(space)){
             board[space.getY()][space.getX()] = piece;
+            if(stale){
+                stamps[space.getY() * width + space.getX()] = epoch;
+            }
+            if(revealedBits != null){
+                trackPiece(space.getX(), space.getY(), piece);
+            }
             markUpdate(space);
         }
     }
@@ -285,22 +598,17 @@ public class Game extends GameBase {
         var piece = getPiece(space);
         if(piece == Piece.MARK_RED) {
             setPiece(space, Piece.MARK_GREEN);
-            markUpdate(space);
         }
         else if (piece == Piece.MARK_GREEN) {
             setPiece(space, Piece.MARK_BLUE);
-            markUpdate(space);
         }
         else if (piece == Piece.MARK_BLUE) {
             setPiece(space, Piece.MARK_RED);
-            markUpdate(space);
         }
         else if (piece != null && piece.isMark()){
             setPiece(space,null);
-            markUpdate(space);
         } else if (isReplaceable(space)) {
             setPiece(space, Piece.MARK_RED);
-            markUpdate(space);
         }
     }
 
@@ -308,44 +616,78 @@ public class Game extends GameBase {
     }
 
     private void firstClick(Space space) {
-        generateMines(space);
-        firstClick = false;
+        // each board gets its own stream, seeded from the game's generator
+        var seed = RANDOM.nextLong();
+        if(journal != null){
+            journal.minesPlaced(space.getX(), space.getY(), seed);
+        }
+        placeMines(space.getX(), space.getY(), seed);
     }
 
-    private void generateMines(Space thisSpace) {
-
-        for(var i = 0; i < height; ++i){
-            for(var j = 0; j < width; ++j){
-                mines[i][j] = false;
-            }
-        }
-        int thisMineCount = 0;
-        while(thisMineCount < mineCount)
-        {
-            Random random = new Random();
-            int randomHeight = random.nextInt(getHeight());
-            int randomWidth = random.nextInt(getWidth());
+    /**
+     * Places the mines for a first click. The same seed always gives the same
+     * board, which is how a journal replays the first click
+     *
+     * @param x    X value of the first click
+     * @param y    Y value of the first click
+     * @param seed Seed of the board's random stream
+     */
+    void placeMines(int x, int y, long seed) {
+        var start = System.nanoTime();
+        // the mines are rewritten anyway, so this is when the old pieces get cleared
+        settle();
+        placeMines(mines, mineCount, x, y, neighborTable, new Random(seed));
+        analysis = analyze();
+        mineBits = null;
+        neighborCounts = null;
+        mineNumbers = null;
+        GameMetrics.get().recordMineGeneration(System.nanoTime() - start);
+        firstClick = false;
+    }
 
-            if(thisSpace.getX() == randomWidth && thisSpace.getY() == randomHeight) {
-                continue;
-            } else if (mines[randomHeight][randomWidth] == true){
+    /**
+     * Places mines at random, keeping the first click and its neighbors clear
+     * so the first click always opens. The same random stream always gives the same board
+     *
+     * @param mines     Minefield to fill, indexed [y][x], cleared first
+     * @param mineCount Mines to place, at most the spaces outside the clear area
+     * @param safeX     X value of the first click
+     * @param safeY     Y value of the first click
+     * @param table     Neighbors of every space, for the clear area
+     * @param random    Source of randomness
+     */
+    static void placeMines(boolean[][] mines, int mineCount, int safeX, int safeY, NeighborTable table,
+                           RandomGenerator random) {
+        var height = mines.length;
+        var width = mines[0].length;
+        for (var row : mines) {
+            Arrays.fill(row, false);
+        }
+
+        var safe = safeY * width + safeX;
+        var clear = table.offsets(safe);
+        var placed = 0;
+        while (placed < mineCount) {
+            var y = random.nextInt(height);
+            var x = random.nextInt(width);
+            if (mines[y][x] || isClear(y * width + x - safe, clear)) {
                 continue;
-            } else {
-                mines[randomHeight][randomWidth] = true;
-                ++thisMineCount;
             }
+            mines[y][x] = true;
+            placed++;
+        }
+    }
 
-            Space[] neighbors = getNeighbors(thisSpace);
-
-            for(Space neighbor : neighbors){
-                if(isValid(neighbor)) {
-                    if (neighbor.getY() == randomHeight && neighbor.getX() == randomWidth) {
-                        mines[randomHeight][randomWidth] = false;
-                        --thisMineCount;
-                    }
-                }
+    private static boolean isClear(int offset, int[] clear) {
+        if (offset == 0) {
+            return true;
+        }
+        for (var neighbor : clear) {
+            if (neighbor == offset) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
@@ -361,7 +703,79 @@ public class Game extends GameBase {
         if(!isValid(space)){
             return null;
         }
-        return board[space.getY()][space.getX()];
+        return getPiece(space.getX(), space.getY());
+    }
+
+    @Override
+    public Piece getPiece(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return null;
+        }
+        if (stale && stamps[y * width + x] != epoch) {
+            return null;
+        }
+        if (revealedMine != null) {
+            return revealed(x, y, board[y][x]);
+        }
+        return board[y][x];
+    }
+
+    /**
+     * Clears the pieces left over from before the last reset, and the old mines
+     * if new ones are not placed yet, or writes in the revealed mines, so the
+     * arrays can be read directly. Only for code reading the arrays, such as
+     * saves and text boards, the reveal is a pass over every space
+     */
+    @Override
+    void settle() {
+        if(revealedMine != null){
+            for(var y = 0; y < height; y++){
+                var row = board[y];
+                for(var x = 0; x < width; x++){
+                    row[x] = revealed(x, y, row[x]);
+                }
+            }
+            revealedMine = null;
+        }
+        clearStale();
+    }
+
+    /**
+     * Clears the pieces left over from before the last reset, and the old
+     * mines if new ones are not placed yet
+     */
+    private void clearStale() {
+        if(!stale){
+            return;
+        }
+        for(var y = 0; y < height; y++){
+            var row = board[y];
+            for(var x = 0; x < width; x++){
+                if(stamps[y * width + x] != epoch){
+                    row[x] = null;
+                }
+            }
+        }
+        if(firstClick){
+            for(var row : mines){
+                Arrays.fill(row, false);
+            }
+        }
+        stale = false;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        settle();
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if(topology == null){
+            topology = Topology.SQUARE;
+        }
+        neighborTable = topology.table(width, height);
+        stamps = new int[width * height];
     }
 
     /**
@@ -389,6 +803,15 @@ public class Game extends GameBase {
         }
     }
 
+    @Override
+    public boolean isEnabled(int x, int y) {
+        if(x < 0 || y < 0 || x >= width || y >= height){
+            return false;
+        }
+        var piece = getPiece(x, y);
+        return piece == null || piece.isEnabled();
+    }
+
     public boolean isReplaceable(Space space) {
         if(!isValid(space)){
             return false;
@@ -435,6 +858,16 @@ public class Game extends GameBase {
         return mineCount - flagCount;
     }
 
+    /**
+     * Gets the total number of mines on the board
+     *
+     * @return total mines (mineCount)
+     */
+    @Override
+    public int getMineCount() {
+        return mineCount;
+    }
+
     /**
      * Checks if the player has used their cheat
      *
@@ -495,14 +928,4 @@ public class Game extends GameBase {
 
         return space.getY() < height && space.getX() < width;
     }
-
-    /**
-     * Gets a list of spaces pending updates to update the button displays
-     *
-     * @return a list of spaces needing an update (boardUpdates)
-     */
-    @Override
-    public Queue<Space> getUpdates() {
-        return boardUpdates;
-    }
 }
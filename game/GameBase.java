@@ -1,13 +1,20 @@
 package edu.wou.cs361.minesweeper.game;
 
+import edu.wou.cs361.minesweeper.metrics.GameMetrics;
 import edu.wou.cs361.minesweeper.model.Piece;
 import edu.wou.cs361.minesweeper.model.Space;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public abstract class GameBase implements IGame {
+    // pinned to the value computed for the first release, so every save made since loads
+    private static final long serialVersionUID = 1388012772889319837L;
 
     /**
      * Random number generator used to create game seeds
@@ -18,9 +25,13 @@ public abstract class GameBase implements IGame {
     // the number of flags currently on the board
     protected int flagCount;
 
-    // resizable
+    // polled updates, only kept once someone asks for them with getUpdates()
     protected transient Queue<Space> boardUpdates;
 
+    // changes made by the running operation, and who to tell about them
+    protected transient ChangeRecorder changes;
+    protected transient List<BoardListener> listeners;
+
     // board data
     protected Piece[][] board;
     protected boolean[][] mines;
@@ -30,6 +41,9 @@ public abstract class GameBase implements IGame {
     // determines if the first click happened yet
     protected boolean firstClick;
 
+    // board size where reveals switch to a parallel fill, a setting rather than game state
+    protected transient int parallelThreshold = ParallelReveal.DEFAULT_THRESHOLD;
+
     // determines if we have used our cheats
     protected int cheatsAllowed;
 
@@ -51,6 +65,74 @@ public abstract class GameBase implements IGame {
         // sanity check in case the GUI fails to correct the number
         this.cheatsAllowed = this.cheats = cheats;
 
-        this.boardUpdates = new LinkedList<>();
+        this.changes = new ChangeRecorder();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public void addBoardListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeBoardListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets a list of spaces pending updates to update the button displays.
+     * The queue is only filled from the first call on, listeners are the
+     * cheaper way to follow changes
+     *
+     * @return a list of spaces needing an update (boardUpdates)
+     */
+    @Override
+    public Queue<Space> getUpdates() {
+        if (boardUpdates == null) {
+            boardUpdates = new LinkedList<>();
+        }
+        GameMetrics.get().recordUpdateQueueDepth(boardUpdates.size());
+        return boardUpdates;
+    }
+
+    /**
+     * Ends an operation, sending its changes to the listeners as one event and
+     * to the polled queue if one is in use
+     *
+     * @param previousState State before the operation
+     */
+    protected void fireChanges(GameState previousState) {
+        // nobody is watching, so skip building the event
+        if (listeners.isEmpty() && boardUpdates == null) {
+            changes.clear();
+            return;
+        }
+
+        var event = changes.build(width, height, previousState, GameState.of(this), mineCount - flagCount);
+        if (event == null) {
+            return;
+        }
+        GameMetrics.get().recordChangeEvent(event.size());
+        if (boardUpdates != null) {
+            event.forEachCell(index -> boardUpdates.add(new Space(index % width, index / width)));
+            event.forEachRevealedMine(index -> boardUpdates.add(new Space(index % width, index / width)));
+        }
+        for (var listener : listeners) {
+            listener.boardChanged(event);
+        }
+    }
+
+    /**
+     * Brings the board and mines up to date before something reads the arrays
+     * directly, for games that defer work after a reset
+     */
+    void settle() {
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        parallelThreshold = ParallelReveal.DEFAULT_THRESHOLD;
+        changes = new ChangeRecorder();
+        listeners = new CopyOnWriteArrayList<>();
     }
 }
@@ -0,0 +1,488 @@
+package edu.wou.cs361.minesweeper.game;
+
+import edu.wou.cs361.minesweeper.metrics.JournalCommitEvent;
+import edu.wou.cs361.minesweeper.model.Space;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Autosave for a {@link Game}, journaling every move so a crash only loses
+ * the moves since the last commit
+ * <br>
+ * The directory holds a checkpoint, a {@link GameSnapshot} of the game, and a
+ * journal of the moves made since it was taken. Moves are collected in memory
+ * on the game thread, and a background thread writes and forces them every
+ * {@link #COMMIT_MILLIS}, so one fsync covers every move made in that time and
+ * a click never waits on the disk. Every {@link #CHECKPOINT_MOVES} moves a new
+ * checkpoint replaces the old one and the journal starts over, so recovery
+ * never replays more than that. The game thread only copies the board for a
+ * checkpoint, and the background thread writes it with the next commit.
+ * <br>
+ * Journal layout: magic, version and the generation of its checkpoint, then
+ * fixed size records of type, action, x, y, seed and a CRC32 of the rest. A
+ * journal from any other generation is left over from before the last
+ * checkpoint and is ignored, and replay stops at the first torn record.
+ */
+public final class GameJournal implements Closeable {
+    /**
+     * First four bytes of every journal and checkpoint, "MSJL"
+     */
+    public static final int MAGIC = 0x4D534A4C;
+    /**
+     * Current journal format
+     */
+    public static final short VERSION = 1;
+    /**
+     * Longest time a move waits before it is forced to disk
+     */
+    public static final long COMMIT_MILLIS = 50;
+    /**
+     * Moves journaled before a new checkpoint is taken
+     */
+    public static final int CHECKPOINT_MOVES = 4096;
+
+    private static final String CHECKPOINT_FILE = "checkpoint.bin";
+    private static final String JOURNAL_FILE = "journal.bin";
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES;
+    private static final int RECORD_BYTES = 2 + 2 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    // record types
+    private static final byte CLICK = 1;
+    private static final byte MINES = 2;
+    private static final byte RESET = 3;
+
+    private static final IGame.ClickAction[] ACTIONS = IGame.ClickAction.values();
+
+    // directories with an open journal, a window's journal must close before the next one opens
+    private static final Set<Path> OPEN = new HashSet<>();
+
+    // data
+    private final Path directory;
+    private final Game game;
+    private final FileChannel channel;
+    private final ScheduledExecutorService committer;
+    private final Thread exitHook;
+
+    // only used on the game thread
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+    private long generation;
+    private int moves;
+
+    // records waiting for the next commit, and the batch being written, guarded by this
+    private ByteBuffer pending = ByteBuffer.allocate(RECORD_BYTES * 256);
+    private ByteBuffer writing = ByteBuffer.allocate(RECORD_BYTES * 256);
+    private boolean closed;
+
+    // a checkpoint copied but not yet written, its generation, and the records
+    // made before it, which still go in the old journal first, guarded by this
+    private GameSnapshot checkpoint;
+    private long checkpointGeneration;
+    private ByteBuffer beforeCheckpoint;
+
+    // held while writing the journal, so commits never interleave
+    private final Object io = new Object();
+    private long size;
+
+    private GameJournal(Path directory, Game game) throws IOException {
+        this.directory = directory;
+        this.game = game;
+        this.channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // any generation the old files cannot share
+        this.generation = ThreadLocalRandom.current().nextLong();
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "journal-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.exitHook = new Thread(this::commit, "journal-exit");
+    }
+
+    /**
+     * Starts journaling a game, replacing any autosave in the directory with a
+     * checkpoint of the game as it is now, written in the background. Waits
+     * for a journal still open in the same directory to close first. Called
+     * on the game thread
+     *
+     * @param directory Directory for the checkpoint and journal
+     * @param game      Game to journal
+     * @return the open journal
+     * @throws IOException If the directory cannot be written
+     */
+    public static GameJournal open(Path directory, Game game) throws IOException {
+        Files.createDirectories(directory);
+        directory = directory.toAbsolutePath().normalize();
+        acquire(directory);
+        GameJournal journal;
+        try {
+            journal = new GameJournal(directory, game);
+        } catch (IOException | RuntimeException e) {
+            release(directory);
+            throw e;
+        }
+        journal.checkpoint();
+        game.journal = journal;
+        journal.committer.execute(journal::commit);
+        journal.committer.scheduleWithFixedDelay(journal::commit, COMMIT_MILLIS, COMMIT_MILLIS, TimeUnit.MILLISECONDS);
+        // the window closing exits without stopping the game first
+        Runtime.getRuntime().addShutdownHook(journal.exitHook);
+        return journal;
+    }
+
+    /**
+     * Gets the usual autosave directory
+     *
+     * @return the directory in the user's home
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".minesweeper", "autosave");
+    }
+
+    /**
+     * Rebuilds the game in an autosave, replaying the journal onto the
+     * checkpoint up to the last move that was committed
+     *
+     * @param directory Directory with the checkpoint and journal
+     * @return the recovered game, or null if there is no autosave
+     * @throws IOException If the checkpoint cannot be read
+     */
+    public static Game recover(Path directory) throws IOException {
+        var checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+
+        Game game;
+        long generation;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a journal checkpoint");
+            }
+            var version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+            generation = in.readLong();
+            game = GameSnapshot.read(in);
+        }
+
+        // a checkpoint bounds the journal to a few thousand records, small enough to read at once
+        var journalFile = directory.resolve(JOURNAL_FILE);
+        if (!Files.exists(journalFile)) {
+            return game;
+        }
+        var bytes = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+        if (bytes.remaining() < HEADER_BYTES
+                || bytes.getInt() != MAGIC
+                || bytes.getShort() != VERSION
+                || bytes.getLong() != generation) {
+            return game;
+        }
+
+        var crc = new CRC32();
+        while (bytes.remaining() >= RECORD_BYTES) {
+            crc.reset();
+            crc.update(bytes.array(), bytes.position(), RECORD_BYTES - Integer.BYTES);
+            var type = bytes.get();
+            var action = bytes.get();
+            var x = bytes.getInt();
+            var y = bytes.getInt();
+            var seed = bytes.getLong();
+            // torn by a crash mid-write, nothing after it was committed
+            if (bytes.getInt() != (int) crc.getValue() || action < 0 || action >= ACTIONS.length) {
+                break;
+            }
+            switch (type) {
+                case CLICK:
+                    game.handleClick(new Space(x, y), ACTIONS[action]);
+                    break;
+                case MINES:
+                    game.placeMines(x, y, seed);
+                    break;
+                case RESET:
+                    game.newGame();
+                    break;
+                default:
+                    return game;
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Commits any moves not yet on disk and stops journaling. The autosave
+     * stays, so the game can still be recovered. The game thread must be done
+     * with the game, any move it journals after this is dropped
+     *
+     * @throws IOException If the journal cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        committer.shutdown();
+        try {
+            committer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // every record appended before closed was set is in the buffers now
+        commit();
+        try {
+            Runtime.getRuntime().removeShutdownHook(exitHook);
+        } catch (IllegalStateException ignored) {
+            // already exiting, the hook is running or done
+        }
+        try {
+            synchronized (io) {
+                channel.close();
+            }
+        } finally {
+            release(directory);
+        }
+    }
+
+    /* Internal use */
+
+    /**
+     * Waits until no other journal is open in a directory, then claims it.
+     * A new window opens its journal while the last window's is still
+     * committing its final moves, and both would write the same files
+     *
+     * @param directory Absolute directory of the journal
+     * @throws InterruptedIOException If interrupted while waiting
+     */
+    private static void acquire(Path directory) throws InterruptedIOException {
+        synchronized (OPEN) {
+            while (!OPEN.add(directory)) {
+                try {
+                    OPEN.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for the journal in " + directory);
+                }
+            }
+        }
+    }
+
+    private static void release(Path directory) {
+        synchronized (OPEN) {
+            OPEN.remove(directory);
+            OPEN.notifyAll();
+        }
+    }
+
+    /**
+     * Journals a click once the game has handled it
+     *
+     * @param x      X value of the space
+     * @param y      Y value of the space
+     * @param action Type of click
+     */
+    void clicked(int x, int y, IGame.ClickAction action) {
+        append(CLICK, action.ordinal(), x, y, 0);
+        checkpointIfDue();
+    }
+
+    /**
+     * Journals the seed of a board's mines before they are placed, since the
+     * first click only places the same mines from the same seed
+     *
+     * @param x    X value of the first click
+     * @param y    Y value of the first click
+     * @param seed Seed of the board's random stream
+     */
+    void minesPlaced(int x, int y, long seed) {
+        append(MINES, 0, x, y, seed);
+    }
+
+    /**
+     * Journals a new game or restart once the board is reset
+     */
+    void reset() {
+        append(RESET, 0, 0, 0, 0);
+        checkpointIfDue();
+    }
+
+    private void append(byte type, int action, int x, int y, long seed) {
+        record.clear();
+        record.put(type).put((byte) action).putInt(x).putInt(y).putLong(seed);
+        crc.reset();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (pending.remaining() < RECORD_BYTES) {
+                var larger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            pending.put(record.array());
+        }
+        moves++;
+    }
+
+    private void checkpointIfDue() {
+        if (moves < CHECKPOINT_MOVES) {
+            return;
+        }
+        checkpoint();
+    }
+
+    /**
+     * Copies the game for a new checkpoint, which the next commit writes. The
+     * records made so far stay with the old checkpoint and those made from now
+     * on go with the new one. If the last checkpoint is still waiting to be
+     * written, this one waits for the next move instead
+     */
+    private void checkpoint() {
+        synchronized (this) {
+            if (checkpoint != null || closed) {
+                return;
+            }
+        }
+        // only copies the board, the commit thread does the writing
+        var snapshot = GameSnapshot.capture(game);
+        synchronized (this) {
+            checkpoint = snapshot;
+            checkpointGeneration = ++generation;
+            beforeCheckpoint = pending;
+            pending = ByteBuffer.allocate(writing.capacity());
+        }
+        moves = 0;
+    }
+
+    /**
+     * Writes the checkpoint copied on the game thread and starts the journal
+     * over. The records made before it finish the old journal first, then the
+     * new checkpoint is put in place before the journal is reset, and carries
+     * the next generation, so a crash at any point leaves either the old
+     * checkpoint with its whole journal or the new one with a journal that
+     * recovery ignores or replays. Called holding the io lock
+     *
+     * @throws IOException If either file cannot be written
+     */
+    private void writeCheckpoint(GameSnapshot snapshot, long next, ByteBuffer before) throws IOException {
+        write(before.flip());
+
+        var temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (var out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var stream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out), 1 << 16));
+            stream.writeInt(MAGIC);
+            stream.writeShort(VERSION);
+            stream.writeLong(next);
+            snapshot.write(stream);
+            stream.flush();
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel.truncate(0);
+        var header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(VERSION).putLong(next).flip();
+        size = 0;
+        while (header.hasRemaining()) {
+            size += channel.write(header, size);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Writes and forces every record appended since the last commit, and
+     * any checkpoint waiting to be written before them, run by the commit
+     * thread. The game thread keeps appending into the other buffer meanwhile
+     */
+    private void commit() {
+        synchronized (io) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            ByteBuffer batch;
+            GameSnapshot snapshot;
+            ByteBuffer before;
+            long next;
+            synchronized (this) {
+                snapshot = checkpoint;
+                before = beforeCheckpoint;
+                next = checkpointGeneration;
+                checkpoint = null;
+                beforeCheckpoint = null;
+                if (snapshot == null && pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = writing;
+                writing = batch;
+            }
+
+            if (snapshot != null) {
+                try {
+                    writeCheckpoint(snapshot, next, before);
+                } catch (IOException e) {
+                    // the old checkpoint and journal still hold the game, keep adding to them
+                    e.printStackTrace();
+                }
+            }
+
+            if (batch.position() == 0) {
+                return;
+            }
+            var event = new JournalCommitEvent();
+            event.begin();
+            batch.flip();
+            event.records = batch.remaining() / RECORD_BYTES;
+            event.bytes = batch.remaining();
+            try {
+                write(batch);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Appends records to the journal and forces them to disk
+     */
+    private void write(ByteBuffer records) throws IOException {
+        if (!records.hasRemaining()) {
+            return;
+        }
+        while (records.hasRemaining()) {
+            size += channel.write(records, size);
+        }
+        channel.force(false);
+    }
+}
@@ -0,0 +1,342 @@
+package edu.wou.cs361.minesweeper.game;
+
+import edu.wou.cs361.minesweeper.model.Piece;
+import edu.wou.cs361.minesweeper.model.Space;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary form of a {@link Game}, much smaller than the serialized
+ * object graph: mines are stored as bits and pieces as one byte per space.
+ * <br>
+ * A snapshot can be captured on the game thread and written later from
+ * another thread, so the game only pauses for an in-memory copy.
+ * <br>
+ * Layout: magic, version, width, height, mine count, cheats, flag count,
+ * state bits, revealed count, thumbnail size and pixels, mine bits, pieces,
+ * then the pending updates (-1 when the game is not polled). Everything up
+ * to the mines is a fixed size header, so a save can be described from its
+ * first {@link #HEADER_BYTES} alone as a {@link SaveInfo}. The topology is kept
+ * in the high state bits, so snapshots from before topologies read as square
+ * boards, and version 1 snapshots without the revealed count and thumbnail still load
+ */
+public final class GameSnapshot {
+    /**
+     * First four bytes of every snapshot, "MSWP"
+     */
+    public static final int MAGIC = 0x4D535750;
+    /**
+     * Current snapshot format
+     */
+    public static final short VERSION = 2;
+    /**
+     * Most pixels across or down a thumbnail
+     */
+    public static final int THUMBNAIL = 32;
+    /**
+     * Most spaces a snapshot can hold, the largest array the VM will allocate
+     * for the pieces
+     */
+    public static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+    /**
+     * Size of the header before the mines
+     */
+    public static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + 5 * Integer.BYTES + 1
+            + Integer.BYTES + 2 + THUMBNAIL * THUMBNAIL;
+
+    // state bits
+    private static final int GAME_OVER = 1;
+    private static final int VICTORY = 2;
+    private static final int FIRST_CLICK = 4;
+    private static final int TOPOLOGY_SHIFT = 3;
+
+    private static final Topology[] TOPOLOGIES = Topology.values();
+
+    private static final Piece[] PIECES = Piece.values();
+
+    // bytes written at a time, so progress can be followed on huge boards
+    private static final int CHUNK = 1 << 16;
+
+    // captured state
+    private final int width;
+    private final int height;
+    private final int mineCount;
+    private final int cheats;
+    private final int flagCount;
+    private final int state;
+    private final int revealed;
+    private final int thumbnailWidth;
+    private final int thumbnailHeight;
+    private final byte[] thumbnail = new byte[THUMBNAIL * THUMBNAIL];
+    private final byte[] mineBits;
+    private final byte[] pieces;
+    private final int[] updates;
+
+    private GameSnapshot(Game game) {
+        game.settle();
+        this.width = game.width;
+        this.height = game.height;
+        this.mineCount = game.mineCount;
+        this.cheats = game.cheats;
+        this.flagCount = game.flagCount;
+        this.state = (game.gameOver ? GAME_OVER : 0)
+                | (game.victory ? VICTORY : 0)
+                | (game.firstClick ? FIRST_CLICK : 0)
+                | game.getTopology().ordinal() << TOPOLOGY_SHIFT;
+
+        // mines, eight spaces to a byte in row order
+        this.mineBits = new byte[(int) (((long) width * height + 7) / 8)];
+        var index = 0;
+        for (var y = 0; y < height; y++) {
+            var row = game.mines[y];
+            for (var x = 0; x < width; x++, index++) {
+                if (row[x]) {
+                    mineBits[index >> 3] |= 1 << (index & 7);
+                }
+            }
+        }
+
+        // pieces, 0 for covered spaces, counting each thumbnail block on the way
+        var block = (Math.max(width, height) + THUMBNAIL - 1) / THUMBNAIL;
+        this.thumbnailWidth = (width + block - 1) / block;
+        this.thumbnailHeight = (height + block - 1) / block;
+        var counts = new int[thumbnailWidth * thumbnailHeight * 4];
+        var columns = new int[width];
+        for (var x = 0; x < width; x++) {
+            columns[x] = x / block * 4;
+        }
+        var shown = 0;
+        this.pieces = new byte[width * height];
+        index = 0;
+        for (var y = 0; y < height; y++) {
+            var row = game.board[y];
+            var rowBase = y / block * thumbnailWidth * 4;
+            for (var x = 0; x < width; x++, index++) {
+                var piece = row[x];
+                pieces[index] = (byte) (piece == null ? 0 : piece.ordinal() + 1);
+                var category = category(piece);
+                if (category == SaveInfo.REVEALED) {
+                    shown++;
+                }
+                counts[rowBase + columns[x] + category]++;
+            }
+        }
+        this.revealed = shown;
+        for (var pixel = 0; pixel < thumbnailWidth * thumbnailHeight; pixel++) {
+            var most = SaveInfo.COVERED;
+            for (byte category = 1; category < 4; category++) {
+                if (counts[pixel * 4 + category] > counts[pixel * 4 + most]) {
+                    most = category;
+                }
+            }
+            thumbnail[pixel] = most;
+        }
+
+        // updates not yet drawn, so a restored game shows the same changes,
+        // or null if nothing polls the game for updates
+        var queue = game.boardUpdates;
+        if (queue == null) {
+            this.updates = null;
+        } else {
+            this.updates = new int[queue.size() * 2];
+            var i = 0;
+            for (var space : queue) {
+                updates[i++] = space.getX();
+                updates[i++] = space.getY();
+            }
+        }
+    }
+
+    /**
+     * Copies the state of a game into packed arrays, one pass over the board
+     * with no I/O. Called on the game thread, after which the copy can be
+     * written from any thread while the game carries on
+     *
+     * @param game Game to copy
+     * @return the snapshot
+     */
+    public static GameSnapshot capture(Game game) {
+        return new GameSnapshot(game);
+    }
+
+    /**
+     * Writes the full state of a game
+     *
+     * @param game Game to write
+     * @param out  Destination
+     * @throws IOException If the destination fails
+     */
+    public static void write(Game game, DataOutput out) throws IOException {
+        capture(game).write(out);
+    }
+
+    /**
+     * Gets the number of bytes {@link #write(DataOutput)} produces
+     *
+     * @return size of the snapshot
+     */
+    public long size() {
+        return HEADER_BYTES + mineBits.length + pieces.length
+                + Integer.BYTES + (updates == null ? 0 : (long) updates.length * Integer.BYTES);
+    }
+
+    /**
+     * Writes the captured state
+     *
+     * @param out Destination
+     * @throws IOException If the destination fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(mineCount);
+        out.writeInt(cheats);
+        out.writeInt(flagCount);
+        out.writeByte(state);
+        out.writeInt(revealed);
+        out.writeByte(thumbnailWidth);
+        out.writeByte(thumbnailHeight);
+        out.write(thumbnail);
+        writeChunked(out, mineBits);
+        writeChunked(out, pieces);
+
+        if (updates == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(updates.length / 2);
+        for (var value : updates) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads a game written by {@link #write(Game, DataOutput)}
+     *
+     * @param in Source
+     * @return the restored game
+     * @throws IOException If the source fails or does not contain a snapshot
+     */
+    public static Game read(DataInput in) throws IOException {
+        var info = readInfo(in);
+        var width = info.getWidth();
+        var height = info.getHeight();
+
+        var game = new Game(width, height, info.getMineCount(), info.getCheats(), info.getTopology(), true);
+        game.flagCount = info.getMineCount() - info.getRemainingMines();
+        game.gameOver = info.getState() != GameState.PLAYING;
+        game.victory = info.getState() == GameState.WON;
+        game.firstClick = !info.isStarted();
+
+        var bits = new byte[(int) (((long) width * height + 7) / 8)];
+        in.readFully(bits);
+        var index = 0;
+        for (var y = 0; y < height; y++) {
+            var row = game.mines[y];
+            for (var x = 0; x < width; x++, index++) {
+                row[x] = (bits[index >> 3] & (1 << (index & 7))) != 0;
+            }
+        }
+
+        var pieces = new byte[width];
+        for (var y = 0; y < height; y++) {
+            in.readFully(pieces);
+            var row = game.board[y];
+            for (var x = 0; x < width; x++) {
+                var code = pieces[x] & 0xFF;
+                if (code > PIECES.length) {
+                    throw new IOException("Invalid piece " + code + " at " + new Space(x, y));
+                }
+                row[x] = code == 0 ? null : PIECES[code - 1];
+            }
+        }
+
+        var updates = in.readInt();
+        if (updates >= 0) {
+            var queue = game.getUpdates();
+            for (var i = 0; i < updates; i++) {
+                queue.add(new Space(in.readInt(), in.readInt()));
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Reads only the header of a snapshot, leaving the source at the mines
+     *
+     * @param in Source
+     * @return what the snapshot holds
+     * @throws IOException If the source fails or does not start with a snapshot
+     */
+    public static SaveInfo readInfo(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a game snapshot");
+        }
+        var version = in.readShort();
+        if (version != 1 && version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        var width = in.readInt();
+        var height = in.readInt();
+        var mineCount = in.readInt();
+        var cheats = in.readInt();
+        if (width < 1 || height < 1 || (long) width * height > MAX_CELLS) {
+            throw new IOException("Invalid snapshot size " + width + "x" + height);
+        }
+
+        var flagCount = in.readInt();
+        var state = in.readByte();
+        var topology = (state & 0xFF) >>> TOPOLOGY_SHIFT;
+        if (topology >= TOPOLOGIES.length) {
+            throw new IOException("Unknown snapshot topology " + topology);
+        }
+        var gameState = (state & GAME_OVER) == 0 ? GameState.PLAYING
+                : (state & VICTORY) != 0 ? GameState.WON : GameState.LOST;
+        var started = (state & FIRST_CLICK) == 0;
+        // before the first click the mines still have to fit around its clear area,
+        // or placing them never finishes
+        var maxMines = (long) width * height - (started ? 0 : TOPOLOGIES[topology].getClearArea(width, height));
+        if (mineCount < 0 || mineCount > maxMines) {
+            throw new IOException("Invalid snapshot mine count " + mineCount);
+        }
+
+        // version 1 stops here
+        if (version == 1) {
+            return new SaveInfo(width, height, mineCount, cheats, flagCount, TOPOLOGIES[topology], gameState,
+                    started, -1, 0, 0, null);
+        }
+        var revealed = in.readInt();
+        var thumbnailWidth = in.readUnsignedByte();
+        var thumbnailHeight = in.readUnsignedByte();
+        var pixels = new byte[THUMBNAIL * THUMBNAIL];
+        in.readFully(pixels);
+        if (thumbnailWidth * thumbnailHeight > pixels.length) {
+            throw new IOException("Invalid thumbnail " + thumbnailWidth + "x" + thumbnailHeight);
+        }
+        return new SaveInfo(width, height, mineCount, cheats, flagCount, TOPOLOGIES[topology], gameState,
+                started, revealed, thumbnailWidth, thumbnailHeight, pixels);
+    }
+
+    /* Internal use */
+
+    private static byte category(Piece piece) {
+        if (piece == null || piece.isMark()) {
+            return SaveInfo.COVERED;
+        }
+        if (piece == Piece.FLAG || piece == Piece.FLAG_NOT) {
+            return SaveInfo.FLAGGED;
+        }
+        return piece.isNumber() ? SaveInfo.REVEALED : SaveInfo.MINE;
+    }
+
+    private static void writeChunked(DataOutput out, byte[] bytes) throws IOException {
+        for (var offset = 0; offset < bytes.length; offset += CHUNK) {
+            out.write(bytes, offset, Math.min(CHUNK, bytes.length - offset));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package edu.wou.cs361.minesweeper.game;
+
+/**
+ * Overall state of a game
+ */
+public enum GameState {
+    /**
+     * Game still in progress
+     */
+    PLAYING,
+    /**
+     * Every safe space was revealed
+     */
+    WON,
+    /**
+     * A mine was clicked
+     */
+    LOST;
+
+    /**
+     * Gets the state of a game
+     *
+     * @param game Game to check
+     * @return the game's current state
+     */
+    public static GameState of(IGame game) {
+        if (!game.gameOver()) {
+            return PLAYING;
+        }
+        return game.hasWon() ? WON : LOST;
+    }
+}
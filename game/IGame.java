@@ -1,5 +1,8 @@
 package edu.wou.cs361.minesweeper.game;
 
+import edu.wou.cs361.minesweeper.metrics.GameMetrics;
+import edu.wou.cs361.minesweeper.metrics.LoadGameEvent;
+import edu.wou.cs361.minesweeper.metrics.SaveGameEvent;
 import edu.wou.cs361.minesweeper.model.Piece;
 import edu.wou.cs361.minesweeper.model.Space;
 
@@ -14,18 +17,47 @@ public interface IGame extends Serializable {
      * @return The board, or null if invalid
      */
     static IGame loadGame(String filename) {
-        try {
-            var file = new FileInputStream(filename + ".bin");
-            var stream = new ObjectInputStream(file);
-            var board = (IGame) stream.readObject();
-            stream.close();
+        try (var file = new FileInputStream(filename + ".bin")) {
+            var event = new LoadGameEvent();
+            event.begin();
+            var start = System.nanoTime();
+            var size = file.getChannel().size();
+            var board = readGame(file);
+            GameMetrics.get().recordLoad(System.nanoTime() - start, size);
+            event.file = filename + ".bin";
+            event.bytes = size;
+            event.commit();
             return board;
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Reads a game in either save format, a {@link GameSnapshot} or a
+     * serialized game, told apart by the first four bytes
+     *
+     * @param in Source
+     * @return the game
+     * @throws IOException If the source fails or does not hold a game
+     */
+    static IGame readGame(InputStream in) throws IOException {
+        var buffered = new BufferedInputStream(in, 1 << 16);
+        var data = new DataInputStream(buffered);
+        buffered.mark(Integer.BYTES);
+        var magic = data.readInt();
+        buffered.reset();
+        if (magic == GameSnapshot.MAGIC) {
+            return GameSnapshot.read(data);
+        }
+        try {
+            return (IGame) new ObjectInputStream(buffered).readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Not a saved game", e);
+        }
+    }
+
     /**
      * Creates a new game with the same width and height dimensions,
      * resets the game data, and update the spaces
@@ -39,11 +71,19 @@ public interface IGame extends Serializable {
      */
     default void saveGame(String filename) {
         try {
+            var event = new SaveGameEvent();
+            event.begin();
+            var start = System.nanoTime();
             var file = new FileOutputStream(filename + ".bin");
             var stream = new ObjectOutputStream(file);
             stream.writeObject(this);
             stream.flush();
+            var size = file.getChannel().size();
             stream.close();
+            GameMetrics.get().recordSave(System.nanoTime() - start, size);
+            event.file = filename + ".bin";
+            event.bytes = size;
+            event.commit();
         } catch (IOException ignored) {
         }
     }
@@ -64,6 +104,15 @@ public interface IGame extends Serializable {
      */
     void handleClick(Space space, ClickAction action);
 
+    /**
+     * Handles a list of clicks in order as one operation, stopping once the game
+     * ends. Listeners get a single event with every change, instead of one per click
+     *
+     * @param batch Clicks to handle
+     * @return how many clicks were handled, the changes made and the final state
+     */
+    BatchResult handleClicks(ClickBatch batch);
+
     /**
      * Gets the piece on the specified space
      * If the space is invalid, return null, otherwise, return the piece
@@ -74,6 +123,18 @@ public interface IGame extends Serializable {
      */
     Piece getPiece(Space space);
 
+    /**
+     * Gets the piece at a position without creating a {@link Space},
+     * for callers that read the whole board
+     *
+     * @param x X value of the space
+     * @param y Y value of the space
+     * @return the piece on the specified space
+     */
+    default Piece getPiece(int x, int y) {
+        return getPiece(new Space(x, y));
+    }
+
     /**
      * Determines if a space appears enabled, or pressed up
      * If a space is invalid, return false, otherwise, get the piece
@@ -85,6 +146,18 @@ public interface IGame extends Serializable {
      */
     boolean isEnabled(Space space);
 
+    /**
+     * Determines if a space appears enabled without creating a {@link Space},
+     * for callers that read the whole board
+     *
+     * @param x X value of the space
+     * @param y Y value of the space
+     * @return True if the space appears enabled
+     */
+    default boolean isEnabled(int x, int y) {
+        return isEnabled(new Space(x, y));
+    }
+
     /**
      * Gets the number of mines left on the board. This should equal
      * the mineCount - flagCount
@@ -93,6 +166,13 @@ public interface IGame extends Serializable {
      */
     int getRemainingMines();
 
+    /**
+     * Gets the total number of mines on the board
+     *
+     * @return total mines (mineCount)
+     */
+    int getMineCount();
+
     /**
      * Gets the width of the board
      *
@@ -135,6 +215,25 @@ public interface IGame extends Serializable {
      */
     boolean hasWon();
 
+    /**
+     * Gets the 3BV of the board, the fewest clicks that clear it without
+     * flags: one per opening plus one per number not touching an opening
+     *
+     * @return 3BV of the board, or -1 if the mines are not placed yet or this game cannot tell
+     */
+    default int getBoardValue() {
+        return -1;
+    }
+
+    /**
+     * Gets how the spaces of the board connect
+     *
+     * @return the topology, square unless the game says otherwise
+     */
+    default Topology getTopology() {
+        return Topology.SQUARE;
+    }
+
     /**
      * Checks if a space is within the bounds of this board. This entails:
      * If the space is null, x < 0 OR y < 0, x >= height OR y < 0, then it's not valid
@@ -146,12 +245,28 @@ public interface IGame extends Serializable {
     boolean isValid(Space space);
 
     /**
-     * Gets a list of spaces pending updates to update the button displays
+     * Gets a list of spaces pending updates to update the button displays.
+     * Only one consumer can drain the queue and each entry is a new object,
+     * so prefer {@link #addBoardListener(BoardListener)}
      *
      * @return a list of spaces needing an update (boardUpdates)
      */
     Queue<Space> getUpdates();
 
+    /**
+     * Adds a listener called with the changes of every click, new game and restart
+     *
+     * @param listener Listener to add
+     */
+    void addBoardListener(BoardListener listener);
+
+    /**
+     * Removes a listener added with {@link #addBoardListener(BoardListener)}
+     *
+     * @param listener Listener to remove
+     */
+    void removeBoardListener(BoardListener listener);
+
     /**
      * Actions that can be performed on click.
      * Used by buttons to pass along a constant rather than a list of modifiers.
@@ -0,0 +1,137 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.util.Arrays;
+
+/**
+ * The neighbors of every space on a board, compiled from a {@link Topology}
+ * <br>
+ * Spaces away from the edges all have the same neighbors relative to their own
+ * index, so the table stores one byte per space naming its kind (which edges
+ * it touches, and the row parity where that matters) and one list of index
+ * offsets per kind. Reading a neighbor is an array lookup and an add.
+ */
+public final class NeighborTable {
+    // data
+    private final Topology topology;
+    private final int width;
+    private final int height;
+    private final byte[] kinds;
+    private final int[][] offsets;
+
+    NeighborTable(Topology topology, int width, int height) {
+        this.topology = topology;
+        this.width = width;
+        this.height = height;
+        this.kinds = new byte[width * height];
+
+        // every space's kind, and the offsets of the first space seen of each kind
+        var found = new int[32][];
+        var scratch = new int[9];
+        var kindCount = 0;
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                var kind = kind(x, y);
+                var index = y * width + x;
+                kinds[index] = (byte) kind;
+                if (found[kind] != null) {
+                    continue;
+                }
+                kindCount = Math.max(kindCount, kind + 1);
+
+                // small boards can wrap onto the space itself or reach a space twice
+                var count = topology.neighbors(x, y, width, height, scratch);
+                var list = new int[count];
+                var size = 0;
+                for (var i = 0; i < count; i++) {
+                    var offset = scratch[i] - index;
+                    if (offset != 0 && !contains(list, size, offset)) {
+                        list[size++] = offset;
+                    }
+                }
+                found[kind] = Arrays.copyOf(list, size);
+            }
+        }
+        this.offsets = Arrays.copyOf(found, kindCount);
+    }
+
+    /**
+     * Gets the topology the table was compiled from
+     *
+     * @return the topology
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the offsets from a space's index to each of its neighbors. The array
+     * is shared, so it must not be changed
+     *
+     * @param index Index of the space, y * width + x
+     * @return neighbor index minus the space's index, for every neighbor
+     */
+    public int[] offsets(int index) {
+        return offsets[kinds[index]];
+    }
+
+    /**
+     * Writes the indexes of a space's neighbors
+     *
+     * @param index Index of the space, y * width + x
+     * @param out   Filled with neighbor indexes, at least {@link Topology#getMaxNeighbors()} long
+     * @return number of neighbors
+     */
+    public int neighbors(int index, int[] out) {
+        var list = offsets[kinds[index]];
+        for (var i = 0; i < list.length; i++) {
+            out[i] = index + list[i];
+        }
+        return list.length;
+    }
+
+    /**
+     * Counts the mines next to every space
+     *
+     * @param mines Mines, indexed [y][x]
+     * @return mines next to each space, indexed y * width + x
+     */
+    public byte[] countMines(boolean[][] mines) {
+        var numbers = new byte[width * height];
+        for (var y = 0; y < height; y++) {
+            var row = mines[y];
+            for (var x = 0; x < width; x++) {
+                if (!row[x]) {
+                    continue;
+                }
+                var index = y * width + x;
+                for (var offset : offsets(index)) {
+                    numbers[index + offset]++;
+                }
+            }
+        }
+        return numbers;
+    }
+
+    /* Internal use */
+
+    /**
+     * Two bits for the columns the space touches, two for the rows, one for
+     * the row parity on boards where odd rows differ
+     */
+    private int kind(int x, int y) {
+        var kind = (x == 0 ? 1 : 0) | (x == width - 1 ? 2 : 0) | (y == 0 ? 4 : 0) | (y == height - 1 ? 8 : 0);
+        if (topology == Topology.HEX) {
+            kind |= (y & 1) << 4;
+        }
+        return kind;
+    }
+
+    private static boolean contains(int[] list, int size, int value) {
+        for (var i = 0; i < size; i++) {
+            if (list[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
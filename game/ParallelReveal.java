@@ -0,0 +1,185 @@
+package edu.wou.cs361.minesweeper.game;
+
+import edu.wou.cs361.minesweeper.model.Piece;
+import edu.wou.cs361.minesweeper.model.Space;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Flood fill for very large boards, run on a {@link ForkJoinPool}
+ * <br>
+ * The board is split into square tiles. Each round, every tile with pending
+ * spaces fills as far as it can inside its own borders, and any space it
+ * reaches in another tile is handed to that tile for the next round. Only the
+ * owning tile ever writes a space, so no locking is needed, and the set of
+ * revealed spaces is the same as the sequential fill since it only depends on
+ * which empty spaces connect.
+ */
+final class ParallelReveal {
+    /**
+     * Board size where {@link Game#activateSpace(Space)} switches to this fill
+     */
+    static final int DEFAULT_THRESHOLD = 1 << 18;
+
+    // tile edge length, a power of two
+    private static final int TILE_SHIFT = 7;
+    private static final int TILE = 1 << TILE_SHIFT;
+
+    // data
+    private final Game game;
+    private final Piece[][] board;
+    private final boolean[][] mines;
+    private final NeighborTable neighbors;
+    private final int width, height;
+    private final int tilesX, tilesY;
+    private IntList[] seeds;
+
+    private ParallelReveal(Game game) {
+        game.buildBits();
+        this.game = game;
+        this.board = game.board;
+        this.mines = game.mines;
+        this.neighbors = game.getNeighborTable();
+        this.width = game.width;
+        this.height = game.height;
+        this.tilesX = (width + TILE - 1) >> TILE_SHIFT;
+        this.tilesY = (height + TILE - 1) >> TILE_SHIFT;
+        this.seeds = new IntList[tilesX * tilesY];
+    }
+
+    /**
+     * Reveals a safe space and everything connected to it through empty spaces
+     *
+     * @param game Game to update, its updates are queued once the fill finishes
+     * @param x    X value of the starting space
+     * @param y    Y value of the starting space
+     * @return number of spaces revealed
+     */
+    static int reveal(Game game, int x, int y) {
+        var fill = new ParallelReveal(game);
+        fill.seed(y * fill.width + x);
+        var revealed = 0;
+
+        while (true) {
+            // every tile with work this round
+            List<TileFill> tasks = new ArrayList<>();
+            for (var tile = 0; tile < fill.seeds.length; tile++) {
+                if (fill.seeds[tile] != null) {
+                    tasks.add(fill.new TileFill(tile, fill.seeds[tile]));
+                }
+            }
+            if (tasks.isEmpty()) {
+                break;
+            }
+            fill.seeds = new IntList[fill.seeds.length];
+
+            // a single tile is not worth handing to the pool
+            if (tasks.size() == 1) {
+                tasks.get(0).compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(tasks);
+                    }
+                });
+            }
+
+            // queue the updates and pass the frontier on to the next round
+            for (var task : tasks) {
+                revealed += task.changed.size;
+                for (var i = 0; i < task.changed.size; i++) {
+                    game.pieceChanged(task.changed.values[i]);
+                }
+                for (var i = 0; i < task.frontier.size; i++) {
+                    fill.seed(task.frontier.values[i]);
+                }
+            }
+        }
+        return revealed;
+    }
+
+    private void seed(int index) {
+        var tile = tileOf(index % width, index / width);
+        if (seeds[tile] == null) {
+            seeds[tile] = new IntList();
+        }
+        seeds[tile].add(index);
+    }
+
+    private int tileOf(int x, int y) {
+        return (y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT);
+    }
+
+    /**
+     * Fills one tile from its seeds
+     */
+    private class TileFill extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int tile;
+        private final IntList stack;
+        private final IntList changed = new IntList();
+        private final IntList frontier = new IntList();
+
+        TileFill(int tile, IntList seeds) {
+            this.tile = tile;
+            this.stack = seeds;
+        }
+
+        @Override
+        protected void compute() {
+            while (stack.size > 0) {
+                var index = stack.values[--stack.size];
+                var x = index % width;
+                var y = index / width;
+
+                // belongs to a neighboring tile, hand it over
+                if (tileOf(x, y) != tile) {
+                    frontier.add(index);
+                    continue;
+                }
+
+                // same rule as Game.isReplaceable, a mine is never next to an empty space
+                var piece = board[y][x];
+                if ((piece != null && !piece.isReplaceable()) || mines[y][x]) {
+                    continue;
+                }
+
+                var number = game.mineNumber(x, y);
+                board[y][x] = Piece.fromNumber(number);
+                changed.add(index);
+
+                if (number == 0) {
+                    for (var offset : neighbors.offsets(index)) {
+                        var next = index + offset;
+                        var nextPiece = board[next / width][next % width];
+                        if (nextPiece == null || nextPiece.isReplaceable()) {
+                            stack.add(next);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable list of ints, avoids boxing every space
+     */
+    private static class IntList {
+        int[] values = new int[64];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
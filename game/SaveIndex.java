@@ -0,0 +1,268 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists the saved games in a directory with what each one holds, reading
+ * only the {@link GameSnapshot#HEADER_BYTES} at the start of each save
+ * <br>
+ * The headers are cached by file name together with each file's size and
+ * modification time, in memory and in an index file in the directory, so a
+ * listing only stats the files and rereads the ones that changed. Saves in
+ * the older serialized form have no header and are listed without details.
+ * <br>
+ * Index layout: magic, version, entry count, then per entry the name,
+ * modification time, size, header length and header bytes.
+ */
+public final class SaveIndex {
+    /**
+     * Name of the index file kept in the directory
+     */
+    public static final String INDEX_FILE = ".saves.idx";
+    /**
+     * First four bytes of the index, "MSIX"
+     */
+    public static final int MAGIC = 0x4D534958;
+    /**
+     * Current index format
+     */
+    public static final short VERSION = 1;
+
+    // extension of saved games
+    private static final String EXTENSION = ".bin";
+
+    // data
+    private final Path directory;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private SaveIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the index of a directory, starting from the index file if there is
+     * a readable one
+     *
+     * @param directory Directory of saved games
+     * @return the index
+     */
+    public static SaveIndex open(Path directory) {
+        var index = new SaveIndex(directory);
+        index.load();
+        return index;
+    }
+
+    /**
+     * Lists the saved games, newest first. Only files changed since the last
+     * listing are read, and the index file is rewritten if anything changed
+     *
+     * @return the saves
+     * @throws IOException If the directory cannot be listed
+     */
+    public synchronized List<Entry> list() throws IOException {
+        var seen = new HashMap<String, Entry>();
+        var changed = false;
+        try (var files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (var file : files) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    // deleted while listing
+                    continue;
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                var name = file.getFileName().toString();
+                var modified = attributes.lastModifiedTime().toMillis();
+                var entry = entries.get(name);
+                if (entry == null || entry.modified != modified || entry.size != attributes.size()) {
+                    entry = new Entry(file, name, modified, attributes.size(), readHeader(file));
+                    changed = true;
+                }
+                seen.put(name, entry);
+            }
+        }
+        changed |= seen.size() != entries.size();
+        entries.clear();
+        entries.putAll(seen);
+        if (changed) {
+            save();
+        }
+
+        var list = new ArrayList<>(entries.values());
+        list.sort(Comparator.comparingLong(Entry::getModified).reversed());
+        return list;
+    }
+
+    /* Internal use */
+
+    /**
+     * Reads the header of a save, just the first bytes of the file
+     *
+     * @return the header, or an empty array if the file is not a snapshot
+     */
+    private static byte[] readHeader(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(GameSnapshot.HEADER_BYTES);
+            // short files end before a full header
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            var header = new byte[buffer.position()];
+            buffer.flip().get(header);
+            return parse(header) == null ? new byte[0] : header;
+        } catch (IOException e) {
+            return new byte[0];
+        }
+    }
+
+    private static SaveInfo parse(byte[] header) {
+        if (header.length == 0) {
+            return null;
+        }
+        try {
+            return GameSnapshot.readInfo(new DataInputStream(new ByteArrayInputStream(header)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void load() {
+        var file = directory.resolve(INDEX_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return;
+            }
+            var count = in.readInt();
+            for (var i = 0; i < count; i++) {
+                var name = in.readUTF();
+                var modified = in.readLong();
+                var size = in.readLong();
+                var header = new byte[in.readUnsignedShort()];
+                in.readFully(header);
+                entries.put(name, new Entry(directory.resolve(name), name, modified, size, header));
+            }
+        } catch (IOException e) {
+            // a damaged index is rebuilt by the next listing
+            entries.clear();
+        }
+    }
+
+    private void save() {
+        var file = directory.resolve(INDEX_FILE);
+        var temp = directory.resolve(INDEX_FILE + ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(entries.size());
+                for (var entry : entries.values()) {
+                    out.writeUTF(entry.name);
+                    out.writeLong(entry.modified);
+                    out.writeLong(entry.size);
+                    out.writeShort(entry.header.length);
+                    out.write(entry.header);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // the index is only a cache, the next listing reads the headers again
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * One saved game
+     */
+    public static final class Entry {
+        private final Path file;
+        private final String name;
+        private final long modified;
+        private final long size;
+        private final byte[] header;
+        private SaveInfo info;
+        private boolean parsed;
+
+        private Entry(Path file, String name, long modified, long size, byte[] header) {
+            this.file = file;
+            this.name = name;
+            this.modified = modified;
+            this.size = size;
+            this.header = header;
+        }
+
+        /**
+         * Gets the save file
+         *
+         * @return path of the file
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * Gets the name the game was saved under
+         *
+         * @return file name without the extension
+         */
+        public String getName() {
+            return name.substring(0, name.length() - EXTENSION.length());
+        }
+
+        /**
+         * Gets when the save was written
+         *
+         * @return modification time in milliseconds since the epoch
+         */
+        public long getModified() {
+            return modified;
+        }
+
+        /**
+         * Gets the size of the save
+         *
+         * @return bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Gets what the save holds, worked out from the header the first time
+         *
+         * @return the details, or null for a save without a header
+         */
+        public synchronized SaveInfo getInfo() {
+            if (!parsed) {
+                info = parse(header);
+                parsed = true;
+            }
+            return info;
+        }
+    }
+}
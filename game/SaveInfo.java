@@ -0,0 +1,181 @@
+package edu.wou.cs361.minesweeper.game;
+
+/**
+ * What a saved game is, read from the fixed size header at the start of a
+ * {@link GameSnapshot} without reading the board
+ * <br>
+ * The header carries a small picture of the board, one category per pixel,
+ * each pixel covering a square block of spaces. Snapshots written before the
+ * header had these details report them as unknown.
+ */
+public final class SaveInfo {
+    /**
+     * Thumbnail pixel of mostly covered spaces
+     */
+    public static final byte COVERED = 0;
+    /**
+     * Thumbnail pixel of mostly revealed numbers
+     */
+    public static final byte REVEALED = 1;
+    /**
+     * Thumbnail pixel of mostly flags
+     */
+    public static final byte FLAGGED = 2;
+    /**
+     * Thumbnail pixel of mostly shown mines
+     */
+    public static final byte MINE = 3;
+
+    // data
+    private final int width;
+    private final int height;
+    private final int mineCount;
+    private final int cheats;
+    private final int flagCount;
+    private final Topology topology;
+    private final GameState state;
+    private final boolean started;
+    private final int revealed;
+    private final int thumbnailWidth;
+    private final int thumbnailHeight;
+    private final byte[] thumbnail;
+
+    SaveInfo(int width, int height, int mineCount, int cheats, int flagCount, Topology topology, GameState state,
+             boolean started, int revealed, int thumbnailWidth, int thumbnailHeight, byte[] thumbnail) {
+        this.width = width;
+        this.height = height;
+        this.mineCount = mineCount;
+        this.cheats = cheats;
+        this.flagCount = flagCount;
+        this.topology = topology;
+        this.state = state;
+        this.started = started;
+        this.revealed = revealed;
+        this.thumbnailWidth = thumbnailWidth;
+        this.thumbnailHeight = thumbnailHeight;
+        this.thumbnail = thumbnail;
+    }
+
+    /**
+     * Gets the width of the board
+     *
+     * @return board width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board
+     *
+     * @return board height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the total number of mines
+     *
+     * @return mine count
+     */
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    /**
+     * Gets the cheats the player has left
+     *
+     * @return remaining cheats
+     */
+    public int getCheats() {
+        return cheats;
+    }
+
+    /**
+     * Gets the mines not yet flagged, as the game shows them
+     *
+     * @return mine count minus flags
+     */
+    public int getRemainingMines() {
+        return mineCount - flagCount;
+    }
+
+    /**
+     * Gets how the spaces of the board connect
+     *
+     * @return the topology
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets whether the game was still being played
+     *
+     * @return the state of the game
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Checks if the first click was made
+     *
+     * @return true once the mines are placed
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Gets the share of safe spaces revealed
+     *
+     * @return 0 to 1, or -1 if the save does not say
+     */
+    public double getProgress() {
+        if (revealed < 0) {
+            return -1;
+        }
+        var safe = (long) width * height - mineCount;
+        return safe <= 0 ? 1 : (double) revealed / safe;
+    }
+
+    /**
+     * Checks if the save has a thumbnail
+     *
+     * @return true if there is one
+     */
+    public boolean hasThumbnail() {
+        return thumbnail != null;
+    }
+
+    /**
+     * Gets the width of the thumbnail
+     *
+     * @return pixels across, 0 without a thumbnail
+     */
+    public int getThumbnailWidth() {
+        return thumbnailWidth;
+    }
+
+    /**
+     * Gets the height of the thumbnail
+     *
+     * @return pixels down, 0 without a thumbnail
+     */
+    public int getThumbnailHeight() {
+        return thumbnailHeight;
+    }
+
+    /**
+     * Gets what most of the spaces under a thumbnail pixel show
+     *
+     * @param x X value of the pixel
+     * @param y Y value of the pixel
+     * @return {@link #COVERED}, {@link #REVEALED}, {@link #FLAGGED} or {@link #MINE}
+     */
+    public byte getThumbnail(int x, int y) {
+        return thumbnail[y * thumbnailWidth + x];
+    }
+}
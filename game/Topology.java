@@ -0,0 +1,139 @@
+package edu.wou.cs361.minesweeper.game;
+
+import java.util.Arrays;
+
+/**
+ * How the spaces of a board connect to each other
+ * <br>
+ * A topology only describes a space's neighbors by coordinates. Games compile
+ * it into a {@link NeighborTable} when the board is made, so nothing works
+ * out coordinates while playing.
+ */
+public enum Topology {
+    /**
+     * The usual grid, eight neighbors and hard edges
+     */
+    SQUARE("Square", 8) {
+        @Override
+        int neighbors(int x, int y, int width, int height, int[] out) {
+            var count = 0;
+            for (var ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (var nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    out[count++] = ny * width + nx;
+                }
+            }
+            return count;
+        }
+    },
+    /**
+     * Eight neighbors, with each edge wrapping round to the opposite one
+     */
+    TORUS("Torus", 8) {
+        @Override
+        int neighbors(int x, int y, int width, int height, int[] out) {
+            var count = 0;
+            for (var dy = -1; dy <= 1; dy++) {
+                var ny = Math.floorMod(y + dy, height);
+                for (var dx = -1; dx <= 1; dx++) {
+                    out[count++] = ny * width + Math.floorMod(x + dx, width);
+                }
+            }
+            return count;
+        }
+    },
+    /**
+     * Hexagons in rows, every odd row shifted half a space right, six neighbors
+     */
+    HEX("Hexagonal", 6) {
+        @Override
+        int neighbors(int x, int y, int width, int height, int[] out) {
+            // the rows above and below touch x and the space towards the shifted side
+            var side = (y & 1) == 0 ? x - 1 : x + 1;
+            var count = 0;
+            for (var ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (var nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    if (ny == y || nx == x || nx == side) {
+                        out[count++] = ny * width + nx;
+                    }
+                }
+            }
+            return count;
+        }
+    };
+
+    // data
+    private final String label;
+    private final int maxNeighbors;
+
+    Topology(String label, int maxNeighbors) {
+        this.label = label;
+        this.maxNeighbors = maxNeighbors;
+    }
+
+    /**
+     * Gets the most neighbors any space has
+     *
+     * @return largest neighbor count
+     */
+    public int getMaxNeighbors() {
+        return maxNeighbors;
+    }
+
+    /**
+     * Gets the most spaces a first click keeps clear of mines, the space and
+     * its neighbors, on a board of one size. A board with more mines than the
+     * other spaces can hold never finishes placing them
+     *
+     * @param width  Width of the board
+     * @param height Height of the board
+     * @return size of the largest clear area
+     */
+    public int getClearArea(int width, int height) {
+        var out = new int[9];
+        var most = 0;
+        // every other space has the same neighbors as one of these, shifted
+        for (var y = 0; y < Math.min(height, 4); y++) {
+            for (var x = 0; x < Math.min(width, 4); x++) {
+                var count = neighbors(x, y, width, height, out);
+                Arrays.sort(out, 0, count);
+                var distinct = 0;
+                for (var i = 0; i < count; i++) {
+                    if (i == 0 || out[i] != out[i - 1]) {
+                        distinct++;
+                    }
+                }
+                most = Math.max(most, distinct);
+            }
+        }
+        return most;
+    }
+
+    /**
+     * Compiles the neighbors of every space on a board of one size
+     *
+     * @param width  Width of the board
+     * @param height Height of the board
+     * @return the table
+     */
+    public NeighborTable table(int width, int height) {
+        return new NeighborTable(this, width, height);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    /**
+     * Lists a space's neighbors by working out their coordinates. May include the
+     * space itself and repeats where a small board wraps onto itself
+     *
+     * @param x      X value of the space
+     * @param y      Y value of the space
+     * @param width  Width of the board
+     * @param height Height of the board
+     * @param out    Filled with neighbor indexes, at least 9 long
+     * @return number of indexes written
+     */
+    abstract int neighbors(int x, int y, int width, int height, int[] out);
+}
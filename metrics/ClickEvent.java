@@ -0,0 +1,46 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for handling one click on the board, from when the
+ * window queues it until the game thread has handled it. Painting the
+ * changes is in {@link InputLatencyEvent}
+ */
+@Name("edu.wou.cs361.minesweeper.Click")
+@Label("Click")
+@Category({"Minesweeper", "Input"})
+@Description("A click on the board, from being queued until the game has handled it")
+@Threshold("1 ms")
+@StackTrace(false)
+public class ClickEvent extends Event {
+    /**
+     * Type of click
+     */
+    @Label("Action")
+    public String action;
+
+    /**
+     * X value of the clicked space
+     */
+    @Label("X")
+    public int x;
+
+    /**
+     * Y value of the clicked space
+     */
+    @Label("Y")
+    public int y;
+
+    /**
+     * Whether the click ended the game
+     */
+    @Label("Game Over")
+    public boolean gameOver;
+}
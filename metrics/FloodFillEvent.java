@@ -0,0 +1,32 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for revealing a space and any opening around it
+ */
+@Name("edu.wou.cs361.minesweeper.FloodFill")
+@Label("Flood Fill")
+@Category({"Minesweeper", "Engine"})
+@Description("Revealing a space and every empty space connected to it")
+@Threshold("1 ms")
+@StackTrace(false)
+public class FloodFillEvent extends Event {
+    /**
+     * Number of spaces revealed
+     */
+    @Label("Cells")
+    public int cells;
+
+    /**
+     * Whether the fill ran on the fork join pool
+     */
+    @Label("Parallel")
+    public boolean parallel;
+}
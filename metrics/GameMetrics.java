@@ -0,0 +1,299 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import edu.wou.cs361.minesweeper.game.IGame;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Engine metrics, recorded by the game around clicks, reveals, mine
+ * generation, change events, update reads and save/load, and by the window for the input
+ * latency of each click
+ * <br>
+ * There is one shared instance, registered with the platform MBean server on
+ * first use so tools like JConsole can read it. Recording is on by default.
+ */
+public class GameMetrics implements GameMetricsMXBean {
+    /**
+     * JMX name the metrics are registered under
+     */
+    public static final String OBJECT_NAME = "edu.wou.cs361.minesweeper:type=GameMetrics";
+
+    private static final GameMetrics INSTANCE = register(new GameMetrics());
+
+    // data
+    private volatile boolean enabled = true;
+    private final Map<IGame.ClickAction, Histogram> clicks = new EnumMap<>(IGame.ClickAction.class);
+    private final Histogram allClicks = new Histogram();
+    private final Histogram floodFillCells = new Histogram();
+    private final Histogram mineGeneration = new Histogram();
+    private final Histogram changeEventSize = new Histogram();
+    private final Histogram updateQueueDepth = new Histogram();
+    private final Histogram saveTime = new Histogram();
+    private final Histogram saveBytes = new Histogram();
+    private final Histogram loadTime = new Histogram();
+    private final Histogram loadBytes = new Histogram();
+    private final Histogram inputLatency = new Histogram();
+
+    private GameMetrics() {
+        for (var action : IGame.ClickAction.values()) {
+            clicks.put(action, new Histogram());
+        }
+    }
+
+    /**
+     * Gets the shared metrics
+     *
+     * @return the metrics instance
+     */
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    private static GameMetrics register(GameMetrics metrics) {
+        // starting the platform MBean server takes a few hundred milliseconds,
+        // so keep it off whichever click first touches the metrics
+        var thread = new Thread(() -> {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                // metrics still work in process, just not over JMX
+                System.err.println("Could not register game metrics: " + e);
+            }
+        }, "metrics-registration");
+        thread.setDaemon(true);
+        thread.start();
+        return metrics;
+    }
+
+    /**
+     * Sets up the flight recorder events on a background thread. The first
+     * event built in the process sets up the recorder, a few hundred
+     * milliseconds that would otherwise land on the first click
+     */
+    public static void preloadEvents() {
+        var thread = new Thread(() -> {
+            // an event that is never committed records nothing
+            new ClickEvent();
+            new InputLatencyEvent();
+            new RepaintBatchEvent();
+            new FloodFillEvent();
+            new RevealMinesEvent();
+            new JournalCommitEvent();
+            new SaveGameEvent();
+            new LoadGameEvent();
+        }, "metrics-preload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /* Recording */
+
+    /**
+     * Records a handled click
+     *
+     * @param action Type of click
+     * @param nanos  Time taken in nanoseconds
+     */
+    public void recordClick(IGame.ClickAction action, long nanos) {
+        if (enabled) {
+            clicks.get(action).record(nanos);
+            allClicks.record(nanos);
+        }
+    }
+
+    /**
+     * Records a reveal
+     *
+     * @param cells Number of spaces revealed
+     */
+    public void recordFloodFill(long cells) {
+        if (enabled) {
+            floodFillCells.record(cells);
+        }
+    }
+
+    /**
+     * Records placing the mines of a new game
+     *
+     * @param nanos Time taken in nanoseconds
+     */
+    public void recordMineGeneration(long nanos) {
+        if (enabled) {
+            mineGeneration.record(nanos);
+        }
+    }
+
+    /**
+     * Records the spaces one operation changed, as sent to the board listeners
+     *
+     * @param spaces Number of changed spaces, including revealed mines
+     */
+    public void recordChangeEvent(long spaces) {
+        if (enabled) {
+            changeEventSize.record(spaces);
+        }
+    }
+
+    /**
+     * Records the size of the update queue when it is read
+     *
+     * @param depth Number of pending updates
+     */
+    public void recordUpdateQueueDepth(int depth) {
+        if (enabled) {
+            updateQueueDepth.record(depth);
+        }
+    }
+
+    /**
+     * Records a save
+     *
+     * @param nanos Time taken in nanoseconds
+     * @param bytes Size of the save
+     */
+    public void recordSave(long nanos, long bytes) {
+        if (enabled) {
+            saveTime.record(nanos);
+            saveBytes.record(bytes);
+        }
+    }
+
+    /**
+     * Records a load
+     *
+     * @param nanos Time taken in nanoseconds
+     * @param bytes Size of the loaded file
+     */
+    public void recordLoad(long nanos, long bytes) {
+        if (enabled) {
+            loadTime.record(nanos);
+            loadBytes.record(bytes);
+        }
+    }
+
+    /**
+     * Records the input latency of a click, from the mouse release until the
+     * changed spaces are painted
+     *
+     * @param nanos Time taken in nanoseconds
+     */
+    public void recordInputLatency(long nanos) {
+        if (enabled) {
+            inputLatency.record(nanos);
+        }
+    }
+
+    /* Reading */
+
+    /**
+     * Takes a copy of every metric, for reading in process
+     *
+     * @return a snapshot of all metrics
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, HistogramSnapshot> clickSnapshots = new LinkedHashMap<>();
+        for (var entry : clicks.entrySet()) {
+            clickSnapshots.put(entry.getKey().name(), entry.getValue().snapshot());
+        }
+        return new MetricsSnapshot(clickSnapshots, floodFillCells.snapshot(), mineGeneration.snapshot(),
+                changeEventSize.snapshot(), updateQueueDepth.snapshot(), saveTime.snapshot(), saveBytes.snapshot(),
+                loadTime.snapshot(), loadBytes.snapshot(), inputLatency.snapshot());
+    }
+
+    @Override
+    public MetricsSnapshot getSnapshot() {
+        return snapshot();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public long getClickCount() {
+        return allClicks.getCount();
+    }
+
+    @Override
+    public double getClickP50Micros() {
+        return allClicks.percentile(0.5) / 1000.0;
+    }
+
+    @Override
+    public double getClickP99Micros() {
+        return allClicks.percentile(0.99) / 1000.0;
+    }
+
+    @Override
+    public long getInputLatencyCount() {
+        return inputLatency.getCount();
+    }
+
+    @Override
+    public double getInputLatencyP50Micros() {
+        return inputLatency.percentile(0.5) / 1000.0;
+    }
+
+    @Override
+    public double getInputLatencyP99Micros() {
+        return inputLatency.percentile(0.99) / 1000.0;
+    }
+
+    @Override
+    public long getRevealedCells() {
+        return floodFillCells.getSum();
+    }
+
+    @Override
+    public long getLargestReveal() {
+        return floodFillCells.getMax();
+    }
+
+    @Override
+    public long getLargestChangeEvent() {
+        return changeEventSize.getMax();
+    }
+
+    @Override
+    public long getMaxUpdateQueueDepth() {
+        return updateQueueDepth.getMax();
+    }
+
+    @Override
+    public long getBytesSaved() {
+        return saveBytes.getSum();
+    }
+
+    @Override
+    public long getBytesLoaded() {
+        return loadBytes.getSum();
+    }
+
+    @Override
+    public void reset() {
+        for (var histogram : clicks.values()) {
+            histogram.reset();
+        }
+        allClicks.reset();
+        floodFillCells.reset();
+        mineGeneration.reset();
+        changeEventSize.reset();
+        updateQueueDepth.reset();
+        saveTime.reset();
+        saveBytes.reset();
+        loadTime.reset();
+        loadBytes.reset();
+        inputLatency.reset();
+    }
+}
@@ -0,0 +1,117 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+/**
+ * JMX view of the engine metrics, registered as
+ * {@value GameMetrics#OBJECT_NAME}
+ */
+public interface GameMetricsMXBean {
+    /**
+     * Checks if metrics are being recorded
+     *
+     * @return true if recording
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns recording on or off
+     *
+     * @param enabled Whether to record
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Gets the total clicks handled, for every action
+     *
+     * @return number of clicks
+     */
+    long getClickCount();
+
+    /**
+     * Gets the median click latency, for every action
+     *
+     * @return median latency in microseconds
+     */
+    double getClickP50Micros();
+
+    /**
+     * Gets the 99th percentile click latency, for every action
+     *
+     * @return 99th percentile latency in microseconds
+     */
+    double getClickP99Micros();
+
+    /**
+     * Gets the number of clicks traced from the mouse release until painted
+     *
+     * @return number of traced clicks
+     */
+    long getInputLatencyCount();
+
+    /**
+     * Gets the median input latency, from the mouse release until the changed spaces are painted
+     *
+     * @return median latency in microseconds
+     */
+    double getInputLatencyP50Micros();
+
+    /**
+     * Gets the 99th percentile input latency, from the mouse release until the changed spaces are painted
+     *
+     * @return 99th percentile latency in microseconds
+     */
+    double getInputLatencyP99Micros();
+
+    /**
+     * Gets the total spaces revealed by flood fills
+     *
+     * @return number of spaces
+     */
+    long getRevealedCells();
+
+    /**
+     * Gets the largest single reveal
+     *
+     * @return most spaces revealed at once
+     */
+    long getLargestReveal();
+
+    /**
+     * Gets the most spaces one operation changed
+     *
+     * @return largest change event
+     */
+    long getLargestChangeEvent();
+
+    /**
+     * Gets the largest number of pending updates seen
+     *
+     * @return deepest update queue
+     */
+    long getMaxUpdateQueueDepth();
+
+    /**
+     * Gets the total bytes written by saves
+     *
+     * @return bytes saved
+     */
+    long getBytesSaved();
+
+    /**
+     * Gets the total bytes read by loads
+     *
+     * @return bytes loaded
+     */
+    long getBytesLoaded();
+
+    /**
+     * Gets every metric at once
+     *
+     * @return a snapshot of all metrics
+     */
+    MetricsSnapshot getSnapshot();
+
+    /**
+     * Clears every metric
+     */
+    void reset();
+}
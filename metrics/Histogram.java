@@ -0,0 +1,140 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values
+ * <br>
+ * Values are grouped into log-linear buckets, eight per power of two, so any
+ * percentile is within about 12% of the true value. Recording is a few atomic
+ * adds, cheap enough to leave on for every click.
+ */
+public class Histogram {
+    // buckets per power of two, as a shift
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    // data
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single value
+     *
+     * @param value Value to record, negative values are counted as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Gets the number of recorded values
+     *
+     * @return number of values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the total of every recorded value
+     *
+     * @return sum of the values
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the largest recorded value
+     *
+     * @return largest value, or 0 if empty
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile
+     *
+     * @param fraction Percentile between 0 and 1
+     * @return lower bound of the bucket holding the percentile, or 0 if empty
+     */
+    public long percentile(double fraction) {
+        var total = 0L;
+        var counts = new long[BUCKETS];
+        for (var i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        var target = Math.max(1, (long) Math.ceil(fraction * total));
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(lowerBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Takes a point-in-time copy of the summary values
+     *
+     * @return the snapshot
+     */
+    public HistogramSnapshot snapshot() {
+        var n = getCount();
+        return new HistogramSnapshot(n, n == 0 ? 0 : (double) getSum() / n,
+                percentile(0.5), percentile(0.9), percentile(0.99), getMax());
+    }
+
+    /**
+     * Clears every recorded value
+     */
+    public void reset() {
+        for (var i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /* Internal use */
+
+    private static int bucket(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        var exponent = 63 - Long.numberOfLeadingZeros(value);
+        var sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        var exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        var sub = bucket % SUB_COUNT;
+        return (long) (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    }
+}
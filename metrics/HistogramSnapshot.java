@@ -0,0 +1,94 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+/**
+ * Summary of a {@link Histogram} at one point in time
+ */
+public class HistogramSnapshot {
+    // data
+    private final long count;
+    private final double mean;
+    private final long p50, p90, p99, max;
+
+    /**
+     * Creates a new snapshot
+     *
+     * @param count Number of values
+     * @param mean  Average value
+     * @param p50   Median
+     * @param p90   90th percentile
+     * @param p99   99th percentile
+     * @param max   Largest value
+     */
+    public HistogramSnapshot(long count, double mean, long p50, long p90, long p99, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of values
+     *
+     * @return number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the average value
+     *
+     * @return the mean
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the median
+     *
+     * @return the 50th percentile
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Gets the 90th percentile
+     *
+     * @return the 90th percentile
+     */
+    public long getP90() {
+        return p90;
+    }
+
+    /**
+     * Gets the 99th percentile
+     *
+     * @return the 99th percentile
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Gets the largest value
+     *
+     * @return the max
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Creates a string of the snapshot
+     *
+     * @return a string of the snapshot
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p90=%d p99=%d max=%d", count, mean, p50, p90, p99, max);
+    }
+}
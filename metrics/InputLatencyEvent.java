@@ -0,0 +1,70 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for one click from the mouse release until the
+ * changed spaces are painted, split into the stages it went through
+ */
+@Name("edu.wou.cs361.minesweeper.InputLatency")
+@Label("Input Latency")
+@Category({"Minesweeper", "Input"})
+@Description("A click from the mouse release until the changed spaces are painted")
+@Threshold("16 ms")
+@StackTrace(false)
+public class InputLatencyEvent extends Event {
+    /**
+     * Type of click
+     */
+    @Label("Action")
+    public String action;
+
+    /**
+     * Time from the mouse release until the listener saw it
+     */
+    @Label("Dispatch")
+    @Timespan
+    public long dispatch;
+
+    /**
+     * Time waiting for the game thread
+     */
+    @Label("Queued")
+    @Timespan
+    public long queued;
+
+    /**
+     * Time the game spent handling the click
+     */
+    @Label("Handle Click")
+    @Timespan
+    public long handle;
+
+    /**
+     * Time until the event thread picked up the changes, including waiting for the next frame
+     */
+    @Label("Delivery")
+    @Timespan
+    public long delivery;
+
+    /**
+     * Time refreshing the buttons and scheduling their repaints
+     */
+    @Label("Update Spaces")
+    @Timespan
+    public long update;
+
+    /**
+     * Time until Swing finished painting the scheduled repaints
+     */
+    @Label("Paint")
+    @Timespan
+    public long paint;
+}
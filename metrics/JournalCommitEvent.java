@@ -0,0 +1,34 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for forcing a group of journaled moves to disk
+ */
+@Name("edu.wou.cs361.minesweeper.JournalCommit")
+@Label("Journal Commit")
+@Category({"Minesweeper", "Persistence"})
+@Description("Writing and forcing the moves journaled since the last commit")
+@Threshold("1 ms")
+@StackTrace(false)
+public class JournalCommitEvent extends Event {
+    /**
+     * Number of records committed together
+     */
+    @Label("Records")
+    public int records;
+
+    /**
+     * Size of the records
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,32 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for reading a game from disk
+ */
+@Name("edu.wou.cs361.minesweeper.LoadGame")
+@Label("Load Game")
+@Category({"Minesweeper", "Persistence"})
+@Description("Reading a game from a save file")
+@Threshold("0 ms")
+public class LoadGameEvent extends Event {
+    /**
+     * Save file read
+     */
+    @Label("File")
+    public String file;
+
+    /**
+     * Size of the save
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
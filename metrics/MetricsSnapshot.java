@@ -0,0 +1,143 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of every engine metric, returned by {@link GameMetrics#snapshot()}
+ * <br>
+ * Times are in nanoseconds and sizes in bytes
+ */
+public class MetricsSnapshot {
+    // data
+    private final Map<String, HistogramSnapshot> clicks;
+    private final HistogramSnapshot floodFillCells;
+    private final HistogramSnapshot mineGeneration;
+    private final HistogramSnapshot changeEventSize;
+    private final HistogramSnapshot updateQueueDepth;
+    private final HistogramSnapshot saveTime, saveBytes;
+    private final HistogramSnapshot loadTime, loadBytes;
+    private final HistogramSnapshot inputLatency;
+
+    /**
+     * Creates a new snapshot
+     *
+     * @param clicks           Click latency for each click action name
+     * @param floodFillCells   Spaces revealed per reveal
+     * @param mineGeneration   Mine generation time
+     * @param changeEventSize  Spaces changed by each operation with a listener or queue watching
+     * @param updateQueueDepth Pending updates each time the queue is read
+     * @param saveTime         Save duration
+     * @param saveBytes        Save file size
+     * @param loadTime         Load duration
+     * @param loadBytes        Load file size
+     * @param inputLatency     Time from a mouse release until the changed spaces are painted
+     */
+    public MetricsSnapshot(Map<String, HistogramSnapshot> clicks, HistogramSnapshot floodFillCells,
+                           HistogramSnapshot mineGeneration, HistogramSnapshot changeEventSize,
+                           HistogramSnapshot updateQueueDepth,
+                           HistogramSnapshot saveTime, HistogramSnapshot saveBytes,
+                           HistogramSnapshot loadTime, HistogramSnapshot loadBytes,
+                           HistogramSnapshot inputLatency) {
+        this.clicks = Collections.unmodifiableMap(clicks);
+        this.floodFillCells = floodFillCells;
+        this.mineGeneration = mineGeneration;
+        this.changeEventSize = changeEventSize;
+        this.updateQueueDepth = updateQueueDepth;
+        this.saveTime = saveTime;
+        this.saveBytes = saveBytes;
+        this.loadTime = loadTime;
+        this.loadBytes = loadBytes;
+        this.inputLatency = inputLatency;
+    }
+
+    /**
+     * Gets the click latency for each click action
+     *
+     * @return latency keyed by click action name
+     */
+    public Map<String, HistogramSnapshot> getClicks() {
+        return clicks;
+    }
+
+    /**
+     * Gets the number of spaces revealed by each reveal
+     *
+     * @return flood fill sizes
+     */
+    public HistogramSnapshot getFloodFillCells() {
+        return floodFillCells;
+    }
+
+    /**
+     * Gets the time taken to place mines
+     *
+     * @return mine generation time
+     */
+    public HistogramSnapshot getMineGeneration() {
+        return mineGeneration;
+    }
+
+    /**
+     * Gets the number of spaces each change event held
+     *
+     * @return change event sizes
+     */
+    public HistogramSnapshot getChangeEventSize() {
+        return changeEventSize;
+    }
+
+    /**
+     * Gets the number of pending updates each time the queue was read
+     *
+     * @return update queue depth
+     */
+    public HistogramSnapshot getUpdateQueueDepth() {
+        return updateQueueDepth;
+    }
+
+    /**
+     * Gets the time taken to save games
+     *
+     * @return save duration
+     */
+    public HistogramSnapshot getSaveTime() {
+        return saveTime;
+    }
+
+    /**
+     * Gets the size of saved games
+     *
+     * @return save sizes
+     */
+    public HistogramSnapshot getSaveBytes() {
+        return saveBytes;
+    }
+
+    /**
+     * Gets the time taken to load games
+     *
+     * @return load duration
+     */
+    public HistogramSnapshot getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * Gets the size of loaded games
+     *
+     * @return load sizes
+     */
+    public HistogramSnapshot getLoadBytes() {
+        return loadBytes;
+    }
+
+    /**
+     * Gets the time from a mouse release until the changed spaces were painted
+     *
+     * @return input latency
+     */
+    public HistogramSnapshot getInputLatency() {
+        return inputLatency;
+    }
+}
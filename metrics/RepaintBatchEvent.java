@@ -0,0 +1,26 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for refreshing the buttons of every changed space
+ */
+@Name("edu.wou.cs361.minesweeper.RepaintBatch")
+@Label("Repaint Batch")
+@Category({"Minesweeper", "Rendering"})
+@Description("Draining the update queue and scheduling repaints for the changed spaces")
+@Threshold("1 ms")
+@StackTrace(false)
+public class RepaintBatchEvent extends Event {
+    /**
+     * Number of spaces refreshed
+     */
+    @Label("Cells")
+    public int cells;
+}
@@ -0,0 +1,32 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for showing the mines when a game ends
+ */
+@Name("edu.wou.cs361.minesweeper.RevealMines")
+@Label("Reveal Mines")
+@Category({"Minesweeper", "Engine"})
+@Description("Showing every mine and wrong flag at the end of a game")
+@Threshold("1 ms")
+@StackTrace(false)
+public class RevealMinesEvent extends Event {
+    /**
+     * Whether the game was won
+     */
+    @Label("Victory")
+    public boolean victory;
+
+    /**
+     * Number of spaces changed
+     */
+    @Label("Cells")
+    public int cells;
+}
@@ -0,0 +1,32 @@
+package edu.wou.cs361.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for writing a game to disk
+ */
+@Name("edu.wou.cs361.minesweeper.SaveGame")
+@Label("Save Game")
+@Category({"Minesweeper", "Persistence"})
+@Description("Writing a game to a save file")
+@Threshold("0 ms")
+public class SaveGameEvent extends Event {
+    /**
+     * Save file written
+     */
+    @Label("File")
+    public String file;
+
+    /**
+     * Size of the save
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
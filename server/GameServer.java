@@ -0,0 +1,459 @@
+package edu.wou.cs361.minesweeper.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import edu.wou.cs361.minesweeper.game.BatchResult;
+import edu.wou.cs361.minesweeper.game.ClickBatch;
+import edu.wou.cs361.minesweeper.game.ConcurrentGame;
+import edu.wou.cs361.minesweeper.game.Game;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.game.Topology;
+import edu.wou.cs361.minesweeper.model.Piece;
+import edu.wou.cs361.minesweeper.model.Space;
+import edu.wou.cs361.minesweeper.session.SessionManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Embedded HTTP server that lets other processes play games without the GUI.
+ * <br>
+ * Every request runs on its own virtual thread, and the routes map directly
+ * onto {@link IGame} operations:
+ * <pre>
+ * POST   /games?width=9&amp;height=9&amp;mines=10&amp;cheats=0  create a game
+ * GET    /games/{id}                                  game state and board
+ * POST   /games/{id}/click?x=1&amp;y=2&amp;action=DEFAULT    click a space
+ * POST   /games/{id}/flag?x=1&amp;y=2                     flag a space
+ * POST   /games/{id}/batch   body [[x,y,"ACTION"],...]  several clicks as one operation
+ * GET    /games/{id}/diff?player=0                    spaces changed since the player's last diff
+ * POST   /games/{id}/join                             join a shared game as another player
+ * POST   /games/{id}/leave?player=1                   leave a shared game
+ * DELETE /games/{id}                                  end the session
+ * </pre>
+ * Creating a game with {@code shared=true} makes a {@link ConcurrentGame},
+ * where each player who joins gets their own diff. A game only tracks changes
+ * for a player from their first diff on, so a client takes a diff before
+ * reading the board. Boards are sent as one
+ * string per row, see {@link #pieceCode(Piece)} for the characters used.
+ * Games are hosted by a {@link SessionManager}, so idle sessions are parked on disk
+ */
+public class GameServer implements HttpHandler {
+    /**
+     * Port used when none is given on the command line
+     */
+    public static final int DEFAULT_PORT = 8361;
+
+    // largest board the server will create, keeps a single request from exhausting the heap
+    private static final int MAX_CELLS = 1 << 20;
+
+    // data
+    private final SessionManager sessions;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a server hosting games in the given session manager
+     *
+     * @param sessions Manager holding the games
+     */
+    public GameServer(SessionManager sessions) {
+        this.sessions = sessions;
+    }
+
+    /**
+     * Starts a server on the loopback interface
+     *
+     * @param args Optional port number and idle seconds before a game is parked on disk
+     * @throws IOException If the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        var port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        var idle = Duration.ofSeconds(args.length > 1 ? Integer.parseInt(args[1]) : 300);
+        var directory = Files.createTempDirectory("minesweeper-sessions");
+        var server = new GameServer(new SessionManager(directory, idle, 256));
+        server.start(port);
+        System.out.println("Minesweeper server listening on http://localhost:" + server.getPort() + "/games");
+    }
+
+    /**
+     * Binds the server to the loopback interface and starts accepting requests
+     *
+     * @param port Port to listen on, 0 picks a free port
+     * @throws IOException If the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        // small JSON replies otherwise wait on delayed ACKs, and keep-alive
+        // connections past the idle limit get closed under clients still using them
+        setDefault("sun.net.httpserver.nodelay", "true");
+        setDefault("sun.net.httpserver.maxIdleConnections", "65536");
+
+        // a large backlog so thousands of clients can connect at once
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4096);
+        executor = ThreadSupport.newThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/games", this);
+        server.start();
+    }
+
+    private static void setDefault(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    /**
+     * Stops the server, waiting briefly for running requests to finish
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    /**
+     * Gets the port the server is bound to
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of games currently hosted
+     *
+     * @return number of open sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Routes a request to the matching game operation
+     *
+     * @param exchange Request and response
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (NoSuchElementException e) {
+            send(exchange, 404, error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            send(exchange, 500, error(e.toString()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        var method = exchange.getRequestMethod();
+        var path = exchange.getRequestURI().getPath();
+        // the context matches any path starting with /games, such as /gamesfoo
+        if (!path.equals("/games") && !path.startsWith("/games/")) {
+            send(exchange, 404, error("Unknown path " + path));
+            return;
+        }
+        var parts = path.split("/");
+        var query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        // parts[0] is empty and parts[1] is "games"
+        if (parts.length == 2) {
+            if (method.equals("POST")) {
+                send(exchange, 201, createGame(query));
+            } else {
+                send(exchange, 405, error("Use POST to create a game"));
+            }
+            return;
+        }
+
+        long id;
+        try {
+            id = Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            send(exchange, 404, error("Unknown game " + parts[2]));
+            return;
+        }
+        var operation = parts.length > 3 ? parts[3] : "";
+        if (method.equals("DELETE") && operation.isEmpty()) {
+            if (!sessions.remove(id)) {
+                throw new NoSuchElementException("Unknown game " + id);
+            }
+            send(exchange, 200, "{\"id\":" + id + ",\"deleted\":true}");
+            return;
+        }
+
+        // read the body up front so no IO happens while holding the game's lock
+        var body = operation.equals("batch")
+                ? new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)
+                : "";
+
+        // games are not thread safe, the manager only lets one request touch a game at a time,
+        // except shared games where every player clicks at once
+        var response = sessions.withGame(id, game -> {
+            switch (method + " " + operation) {
+                case "GET ":
+                    return state(id, game, true);
+                case "POST click":
+                    game.handleClick(checked(game, space(query)), action(query.getOrDefault("action", "DEFAULT")));
+                    return state(id, game, false);
+                case "POST flag":
+                    game.handleClick(checked(game, space(query)), IGame.ClickAction.FLAG);
+                    return state(id, game, false);
+                case "POST batch":
+                    return state(id, game, false, game.handleClicks(batch(game, body)));
+                case "GET diff":
+                    return diff(game, intParam(query, "player", 0));
+                case "POST join":
+                    return "{\"id\":" + id + ",\"player\":" + shared(game).join() + "}";
+                case "POST leave":
+                    shared(game).leave(intParam(query, "player", 0));
+                    return "{\"id\":" + id + ",\"left\":true}";
+                default:
+                    return null;
+            }
+        });
+
+        if (response == null) {
+            send(exchange, 404, error("Unknown operation " + method + " " + operation));
+        } else {
+            send(exchange, 200, response);
+        }
+    }
+
+    /* Operations */
+
+    private String createGame(Map<String, String> query) {
+        var width = intParam(query, "width", 9);
+        var height = intParam(query, "height", 9);
+        var mines = intParam(query, "mines", 10);
+        var cheats = intParam(query, "cheats", 0);
+
+        // same limits the custom menu enforces, just with a larger size
+        if (width < 1 || height < 1 || (long) width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid board size " + width + "x" + height);
+        }
+        // the first click keeps itself and its neighbors clear, which takes up to 9 spaces
+        if (mines < 0 || mines > width * height - Topology.SQUARE.getClearArea(width, height)) {
+            throw new IllegalArgumentException("Invalid mine count " + mines);
+        }
+
+        IGame game = Boolean.parseBoolean(query.get("shared"))
+                ? new ConcurrentGame(width, height, mines, Math.max(cheats, 0))
+                : new Game(width, height, mines, Math.max(cheats, 0));
+
+        var id = sessions.create(game);
+        return state(id, game, false);
+    }
+
+    /**
+     * Reads the clicks in the body, checking all of them before any is run
+     *
+     * @param game Game the clicks are for
+     * @param body JSON array of [x, y, "ACTION"] triples
+     * @return the clicks
+     */
+    private ClickBatch batch(IGame game, String body) {
+        // the body is a flat list of values once the brackets and quotes are removed
+        var values = body.replaceAll("[\\[\\]\"\\s]", "").split(",");
+        if (values.length % 3 != 0 || (values.length == 1 && values[0].isEmpty())) {
+            throw new IllegalArgumentException("Batch must be a list of [x,y,\"ACTION\"] triples");
+        }
+        var batch = new ClickBatch();
+        for (var i = 0; i < values.length; i += 3) {
+            var space = new Space(parseInt(values[i], "x"), parseInt(values[i + 1], "y"));
+            batch.add(checked(game, space), action(values[i + 2]));
+        }
+        return batch;
+    }
+
+    /**
+     * Drains the pending updates of a game
+     *
+     * @param game   Game to read
+     * @param player Player whose updates to drain, always 0 unless the game is shared
+     * @return JSON object listing every changed space and its new piece
+     */
+    private String diff(IGame game, int player) {
+        var json = new StringBuilder("{\"changes\":[");
+        var queue = player == 0 ? game.getUpdates() : shared(game).getUpdates(player);
+        var first = true;
+        while (!queue.isEmpty()) {
+            var space = queue.poll();
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('[').append(space.getX()).append(',').append(space.getY())
+                    .append(",\"").append(pieceCode(game.getPiece(space))).append("\"]");
+        }
+        json.append("],\"remainingMines\":").append(game.getRemainingMines())
+                .append(",\"gameOver\":").append(game.gameOver())
+                .append(",\"won\":").append(game.hasWon()).append('}');
+        return json.toString();
+    }
+
+    private String state(long id, IGame game, boolean includeBoard) {
+        return state(id, game, includeBoard, null);
+    }
+
+    private String state(long id, IGame game, boolean includeBoard, BatchResult batch) {
+        var json = new StringBuilder();
+        json.append("{\"id\":").append(id)
+                .append(",\"width\":").append(game.getWidth())
+                .append(",\"height\":").append(game.getHeight())
+                .append(",\"remainingMines\":").append(game.getRemainingMines())
+                .append(",\"cheats\":").append(game.getCheats())
+                .append(",\"gameOver\":").append(game.gameOver())
+                .append(",\"won\":").append(game.hasWon());
+        if (batch != null) {
+            json.append(",\"applied\":").append(batch.getApplied())
+                    .append(",\"changed\":").append(batch.getChanged());
+        }
+
+        if (includeBoard) {
+            json.append(",\"board\":[");
+            var row = new StringBuilder(game.getWidth());
+            for (var y = 0; y < game.getHeight(); y++) {
+                row.setLength(0);
+                for (var x = 0; x < game.getWidth(); x++) {
+                    row.append(pieceCode(game.getPiece(new Space(x, y))));
+                }
+                if (y > 0) {
+                    json.append(',');
+                }
+                json.append('"').append(row).append('"');
+            }
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Gets the character used for a piece in board strings
+     * <br>
+     * '.' covered, '0'-'8' numbers, 'F' flag, 'X' wrong flag, '*' mine,
+     * 'R' clicked mine, 'G' green mine, 'r' 'g' 'b' marks
+     *
+     * @param piece Piece to encode, null for a covered space
+     * @return the character for the piece
+     */
+    public static char pieceCode(Piece piece) {
+        if (piece == null) {
+            return '.';
+        }
+        if (piece.isNumber()) {
+            return (char) ('0' + piece.getNumber());
+        }
+        switch (piece) {
+            case FLAG:
+                return 'F';
+            case FLAG_NOT:
+                return 'X';
+            case MINE:
+                return '*';
+            case MINE_RED:
+                return 'R';
+            case MINE_GREEN:
+                return 'G';
+            case MARK_RED:
+                return 'r';
+            case MARK_GREEN:
+                return 'g';
+            default:
+                return 'b';
+        }
+    }
+
+    /* Request parsing */
+
+    private static Map<String, String> parseQuery(String query) {
+        var result = new HashMap<String, String>();
+        if (query == null || query.isEmpty()) {
+            return result;
+        }
+        for (var pair : query.split("&")) {
+            var split = pair.indexOf('=');
+            if (split > 0) {
+                result.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    private static Space space(Map<String, String> query) {
+        if (!query.containsKey("x") || !query.containsKey("y")) {
+            throw new IllegalArgumentException("Missing x or y");
+        }
+        return new Space(parseInt(query.get("x"), "x"), parseInt(query.get("y"), "y"));
+    }
+
+    private static Space checked(IGame game, Space space) {
+        if (!game.isValid(space)) {
+            throw new IllegalArgumentException("Space " + space + " is outside the board");
+        }
+        return space;
+    }
+
+    private static ConcurrentGame shared(IGame game) {
+        if (!(game instanceof ConcurrentGame)) {
+            throw new IllegalArgumentException("Only games created with shared=true have players");
+        }
+        return (ConcurrentGame) game;
+    }
+
+    private static IGame.ClickAction action(String name) {
+        try {
+            return IGame.ClickAction.valueOf(name.toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown action " + name);
+        }
+    }
+
+    private static int intParam(Map<String, String> query, String name, int fallback) {
+        var value = query.get(name);
+        return value == null ? fallback : parseInt(value, name);
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /* Responses */
+
+    private static String error(String message) {
+        var escaped = String.valueOf(message).replace("\\", "\\\\").replace("\"", "\\\"");
+        return "{\"error\":\"" + escaped + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package edu.wou.cs361.minesweeper.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Command line load test for {@link GameServer}
+ * <br>
+ * Opens many concurrent sessions, each playing random clicks, and reports
+ * request latency percentiles once every session finishes.
+ * <pre>
+ * LoadTestClient [port] [sessions] [clicks per session] [width] [height] [mines]
+ * </pre>
+ */
+public class LoadTestClient {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    // data
+    private final HttpClient client;
+    private final String base;
+    private final int width, height, mines;
+
+    /**
+     * Creates a client for a server on localhost
+     *
+     * @param port   Server port
+     * @param width  Width of the games to create
+     * @param height Height of the games to create
+     * @param mines  Mines in the games to create
+     */
+    public LoadTestClient(int port, int width, int height, int mines) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.base = "http://localhost:" + port + "/games";
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+    }
+
+    /**
+     * Runs the load test
+     *
+     * @param args Optional port, sessions, clicks, width, height and mines
+     * @throws Exception If the sessions could not be run
+     */
+    public static void main(String[] args) throws Exception {
+        var port = arg(args, 0, GameServer.DEFAULT_PORT);
+        var sessions = arg(args, 1, 1000);
+        var clicks = arg(args, 2, 50);
+        var width = arg(args, 3, 16);
+        var height = arg(args, 4, 16);
+        var mines = arg(args, 5, 40);
+
+        var client = new LoadTestClient(port, width, height, mines);
+        var start = System.nanoTime();
+        var latencies = client.run(sessions, clicks);
+        var elapsed = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%d sessions, %d requests in %.2fs (%.0f req/s)%n",
+                sessions, latencies.length, elapsed, latencies.length / elapsed);
+        System.out.printf("p50 %.3fms  p99 %.3fms  max %.3fms%n",
+                percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.99) / 1e6,
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Plays every session at the same time
+     *
+     * @param sessions Number of concurrent sessions
+     * @param clicks   Clicks made by each session
+     * @return latency in nanoseconds of every request made
+     * @throws InterruptedException If interrupted while waiting on the sessions
+     */
+    public long[] run(int sessions, int clicks) throws InterruptedException {
+        List<Future<long[]>> results = new ArrayList<>(sessions);
+        var executor = ThreadSupport.newThreadPerTaskExecutor();
+        for (var i = 0; i < sessions; i++) {
+            var seed = i;
+            results.add(executor.submit(() -> session(seed, clicks)));
+        }
+        executor.shutdown();
+
+        // merge every session's timings into one array
+        List<long[]> finished = new ArrayList<>(sessions);
+        var total = 0;
+        for (var result : results) {
+            try {
+                var times = result.get();
+                finished.add(times);
+                total += times.length;
+            } catch (ExecutionException e) {
+                System.err.println("Session failed: " + e.getCause());
+            }
+        }
+        var merged = new long[total];
+        var offset = 0;
+        for (var times : finished) {
+            System.arraycopy(times, 0, merged, offset, times.length);
+            offset += times.length;
+        }
+        return merged;
+    }
+
+    /**
+     * Plays a single session, starting a new game whenever one ends
+     *
+     * @param seed   Seed for the clicked spaces
+     * @param clicks Number of clicks to make
+     * @return latency of every request in nanoseconds
+     */
+    private long[] session(long seed, int clicks) throws IOException, InterruptedException {
+        var random = new Random(seed);
+        var times = new long[clicks + 2];
+        var count = 0;
+
+        var created = timed(times, count++, "POST", "?width=" + width + "&height=" + height + "&mines=" + mines);
+        var id = parseId(created);
+        for (var i = 0; i < clicks; i++) {
+            // room for this click and a possible new game
+            if (count + 2 > times.length) {
+                times = Arrays.copyOf(times, times.length * 2);
+            }
+            var x = random.nextInt(width);
+            var y = random.nextInt(height);
+            var action = random.nextInt(4) == 0 ? "FLAG" : "DEFAULT";
+            var response = timed(times, count++, "POST", "/" + id + "/click?x=" + x + "&y=" + y + "&action=" + action);
+
+            // lost or won, so start over
+            if (response.contains("\"gameOver\":true")) {
+                request("DELETE", "/" + id);
+                id = parseId(timed(times, count++, "POST", "?width=" + width + "&height=" + height + "&mines=" + mines));
+            }
+        }
+        request("DELETE", "/" + id);
+        return Arrays.copyOf(times, count);
+    }
+
+    private String timed(long[] times, int index, String method, String path) throws IOException, InterruptedException {
+        var start = System.nanoTime();
+        var response = request(method, path);
+        times[index] = System.nanoTime() - start;
+        return response;
+    }
+
+    private String request(String method, String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(base + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IOException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static long parseId(String json) throws IOException {
+        var matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new IOException("No game id in " + json);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * Gets a percentile from sorted values
+     *
+     * @param sorted   Values sorted ascending
+     * @param fraction Percentile between 0 and 1
+     * @return the value at the percentile, or 0 if there are no values
+     */
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static int arg(String[] args, int index, int fallback) {
+        return args.length > index ? Integer.parseInt(args[index]) : fallback;
+    }
+}
@@ -0,0 +1,33 @@
+package edu.wou.cs361.minesweeper.server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Helpers for creating the executors used by the server and its tools.
+ * Virtual threads are used when the running JDK provides them, otherwise
+ * a cached pool of platform threads takes their place
+ */
+public final class ThreadSupport {
+    private ThreadSupport() {
+    }
+
+    /**
+     * Creates an executor that starts one thread per task
+     *
+     * @return A virtual thread per task executor, or a cached thread pool on older JDKs
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            // looked up by name so the game still builds on JDKs without virtual threads
+            var method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                var thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package edu.wou.cs361.minesweeper.session;
+
+import edu.wou.cs361.minesweeper.game.ConcurrentGame;
+import edu.wou.cs361.minesweeper.game.Game;
+import edu.wou.cs361.minesweeper.game.GameSnapshot;
+import edu.wou.cs361.minesweeper.game.IGame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Hosts many games at once, keyed by a session ID
+ * <br>
+ * Games are not thread safe, so every access goes through {@link #withGame(long, Function)}
+ * which holds a lock for that game. Locks are striped by ID, so games on different
+ * stripes never wait on each other. Games left idle longer than the TTL are written
+ * to compact snapshots on disk and dropped from the heap, then read back the next
+ * time they are used.
+ * <br>
+ * A {@link ConcurrentGame} is shared by several players and safe to click from
+ * many threads, so it skips the lock and is never written to disk.
+ */
+public class SessionManager implements Closeable {
+    // file extension for passivated games
+    private static final String EXTENSION = ".snap";
+
+    // data
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ReentrantLock[] stripes;
+    private final Path directory;
+    private final long ttlNanos;
+    private final ScheduledExecutorService sweeper;
+
+    // statistics
+    private final AtomicLong passivations = new AtomicLong();
+    private final AtomicLong activations = new AtomicLong();
+
+    /**
+     * Creates a new session manager
+     *
+     * @param directory Folder for passivated games, created if missing
+     * @param ttl       Idle time before a game is written to disk
+     * @param stripes   Number of lock stripes, rounded up to a power of two
+     * @throws IOException If the folder cannot be created
+     */
+    public SessionManager(Path directory, Duration ttl, int stripes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.ttlNanos = ttl.toNanos();
+
+        // power of two so the stripe is a mask rather than a division
+        var count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (var i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+
+        // check for idle games a few times per TTL
+        var period = Math.max(1, ttl.toMillis() / 4);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "session-passivation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleWithFixedDelay(this::passivateIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a game to the manager
+     *
+     * @param game Game to host
+     * @return the ID of the new session
+     */
+    public long create(IGame game) {
+        var id = nextId.getAndIncrement();
+        sessions.put(id, new Session(game));
+        return id;
+    }
+
+    /**
+     * Runs an action against a game while holding its lock, reading the game
+     * back from disk first if it was passivated. A shared game runs the action
+     * without the lock, so its players never wait on each other
+     *
+     * @param id     Session ID
+     * @param action Action to run
+     * @param <T>    Result type
+     * @return the result of the action
+     * @throws NoSuchElementException If there is no session with the ID
+     * @throws UncheckedIOException   If a passivated game cannot be read back
+     */
+    public <T> T withGame(long id, Function<IGame, T> action) {
+        // shared games stay in memory, so there is nothing to read back either
+        var shared = sessions.get(id);
+        if (shared != null && shared.game instanceof ConcurrentGame) {
+            shared.lastAccess = System.nanoTime();
+            return action.apply(shared.game);
+        }
+
+        var lock = stripe(id);
+        lock.lock();
+        try {
+            var session = sessions.get(id);
+            if (session == null) {
+                throw new NoSuchElementException("Unknown session " + id);
+            }
+            if (session.game == null) {
+                session.game = activate(id);
+            }
+            session.lastAccess = System.nanoTime();
+            return action.apply(session.game);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if a session exists, whether in memory or on disk
+     *
+     * @param id Session ID
+     * @return true if the session exists
+     */
+    public boolean contains(long id) {
+        return sessions.containsKey(id);
+    }
+
+    /**
+     * Ends a session, deleting any snapshot on disk
+     *
+     * @param id Session ID
+     * @return true if the session existed
+     */
+    public boolean remove(long id) {
+        var lock = stripe(id);
+        lock.lock();
+        try {
+            var session = sessions.remove(id);
+            if (session != null && session.game == null) {
+                Files.deleteIfExists(file(id));
+            }
+            return session != null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of sessions, including passivated ones
+     *
+     * @return number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the number of sessions currently held on disk
+     *
+     * @return number of passivated sessions
+     */
+    public int passivatedCount() {
+        var count = 0;
+        for (var session : sessions.values()) {
+            if (session.game == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of times a game was written to disk
+     *
+     * @return total passivations
+     */
+    public long getPassivations() {
+        return passivations.get();
+    }
+
+    /**
+     * Gets the number of times a game was read back from disk
+     *
+     * @return total activations
+     */
+    public long getActivations() {
+        return activations.get();
+    }
+
+    /**
+     * Writes every game idle past the TTL to disk. Called periodically, but
+     * may also be called directly to free memory sooner
+     */
+    public void passivateIdle() {
+        var now = System.nanoTime();
+        for (var entry : sessions.entrySet()) {
+            var session = entry.getValue();
+            if (session.game == null || now - session.lastAccess < ttlNanos) {
+                continue;
+            }
+
+            // a game in use is not idle, so skip it rather than waiting
+            var id = entry.getKey();
+            var lock = stripe(id);
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                // recheck now that we hold the lock
+                if (sessions.get(id) == session && session.game instanceof Game
+                        && now - session.lastAccess >= ttlNanos) {
+                    passivate(id, (Game) session.game);
+                    session.game = null;
+                }
+            } catch (IOException e) {
+                // leave it in memory and try again next sweep
+                e.printStackTrace();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops the passivation sweeper. Sessions on disk are left in place
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    /* Internal use */
+
+    private ReentrantLock stripe(long id) {
+        // spread the bits so sequential IDs land on different stripes
+        var hash = Long.hashCode(id * 0x9E3779B97F4A7C15L);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private Path file(long id) {
+        return directory.resolve(id + EXTENSION);
+    }
+
+    private void passivate(long id, Game game) throws IOException {
+        var target = file(id);
+        var temp = directory.resolve(id + EXTENSION + ".tmp");
+        try (var out = new DataOutputStream(new DeflaterOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp))))) {
+            GameSnapshot.write(game, out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        passivations.incrementAndGet();
+    }
+
+    private IGame activate(long id) {
+        var source = file(id);
+        try (var in = new DataInputStream(new InflaterInputStream(
+                new BufferedInputStream(Files.newInputStream(source))))) {
+            var game = GameSnapshot.read(in);
+            Files.delete(source);
+            activations.incrementAndGet();
+            return game;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore session " + id, e);
+        }
+    }
+
+    /**
+     * A hosted game, null while it is passivated
+     */
+    private static class Session {
+        volatile IGame game;
+        volatile long lastAccess;
+
+        Session(IGame game) {
+            this.game = game;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package edu.wou.cs361.minesweeper.solver;
+
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.game.NeighborTable;
+import edu.wou.cs361.minesweeper.game.Topology;
+import edu.wou.cs361.minesweeper.model.Piece;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Solver that only makes moves it can prove, never guessing
+ * <br>
+ * Each sweep looks at every revealed number. A number whose flags already
+ * match it makes its other covered neighbors safe, and a number with exactly
+ * as many covered neighbors as mines left flags them all. When neither rule
+ * finds anything, pairs of nearby numbers are compared: if one number's covered
+ * neighbors are all shared with the other, the difference in their mines must
+ * be in the spaces only the other one touches. Everything a sweep finds is
+ * handed out one move at a time before the next sweep.
+ */
+public class DeductionSolver implements Solver {
+    // moves found by the last sweep
+    private final ArrayDeque<Move> pending = new ArrayDeque<>();
+
+    // per space, reused while the board size and topology stay the same
+    private int width, height;
+    private Topology topology;
+    private NeighborTable table;
+    private final int[] around = new int[8];
+    private int[] seen = new int[0];
+    private int mark;
+    private int[] unknown = new int[0];
+    private byte[] unknownCount = new byte[0];
+    private byte[] remaining = new byte[0];
+    private boolean[] queued = new boolean[0];
+
+    @Override
+    public Move next(IGame game) {
+        while (true) {
+            // skip anything an earlier move already uncovered
+            while (!pending.isEmpty()) {
+                var move = pending.poll();
+                var piece = game.getPiece(move.getX(), move.getY());
+                if (piece == null || piece.isMark()) {
+                    return move;
+                }
+            }
+            if (game.gameOver() || !sweep(game)) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        pending.clear();
+    }
+
+    /* Internal use */
+
+    /**
+     * Looks for provable moves over the whole board
+     *
+     * @param game Game being played
+     * @return true if any move was found
+     */
+    private boolean sweep(IGame game) {
+        resize(game.getWidth(), game.getHeight(), game.getTopology());
+        Arrays.fill(queued, false);
+
+        // single number rules, remembering each number's covered neighbors for the pair rule
+        var found = false;
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                var index = y * width + x;
+                unknownCount[index] = 0;
+                var piece = game.getPiece(x, y);
+                if (piece == null || !piece.isNumber()) {
+                    continue;
+                }
+
+                var flags = 0;
+                var count = 0;
+                var neighbors = table.neighbors(index, around);
+                for (var i = 0; i < neighbors; i++) {
+                    var space = around[i];
+                    var neighbor = game.getPiece(space % width, space / width);
+                    if (neighbor == Piece.FLAG) {
+                        flags++;
+                    } else if (neighbor == null || neighbor.isMark()) {
+                        unknown[index * 8 + count++] = space;
+                    }
+                }
+                unknownCount[index] = (byte) count;
+                remaining[index] = (byte) (piece.getNumber() - flags);
+                if (count == 0) {
+                    continue;
+                }
+
+                if (remaining[index] == 0) {
+                    found |= queueAll(index, IGame.ClickAction.DEFAULT);
+                } else if (remaining[index] == count) {
+                    found |= queueAll(index, IGame.ClickAction.FLAG);
+                }
+            }
+        }
+        if (found) {
+            return true;
+        }
+
+        // pair rule, only numbers sharing a covered neighbor can overlap, so b is
+        // found through the covered neighbors of a
+        for (var a = 0; a < width * height; a++) {
+            if (unknownCount[a] == 0) {
+                continue;
+            }
+            // a new mark for each a, so the seen array is never cleared
+            if (++mark == 0) {
+                Arrays.fill(seen, 0);
+                mark = 1;
+            }
+            for (var i = 0; i < unknownCount[a]; i++) {
+                var shared = unknown[a * 8 + i];
+                for (var offset : table.offsets(shared)) {
+                    var b = shared + offset;
+                    if (seen[b] == mark) {
+                        continue;
+                    }
+                    seen[b] = mark;
+                    found |= comparePair(a, b);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Applies the pair rule when every covered neighbor of a is also next to b
+     */
+    private boolean comparePair(int a, int b) {
+        if (b == a || unknownCount[b] <= unknownCount[a] || !subset(a, b)) {
+            return false;
+        }
+        var extra = unknownCount[b] - unknownCount[a];
+        var mines = remaining[b] - remaining[a];
+        if (mines == 0) {
+            return queueOutside(b, a, IGame.ClickAction.DEFAULT);
+        } else if (mines == extra) {
+            return queueOutside(b, a, IGame.ClickAction.FLAG);
+        }
+        return false;
+    }
+
+    private void resize(int width, int height, Topology topology) {
+        if (width != this.width || height != this.height || topology != this.topology) {
+            this.width = width;
+            this.height = height;
+            this.topology = topology;
+            this.table = topology.table(width, height);
+            var spaces = width * height;
+            seen = new int[spaces];
+            mark = 0;
+            unknown = new int[spaces * 8];
+            unknownCount = new byte[spaces];
+            remaining = new byte[spaces];
+            queued = new boolean[spaces];
+        }
+    }
+
+    /**
+     * Checks if every covered neighbor of a is also a covered neighbor of b
+     */
+    private boolean subset(int a, int b) {
+        for (var i = 0; i < unknownCount[a]; i++) {
+            if (!contains(b, unknown[a * 8 + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(int number, int space) {
+        for (var i = 0; i < unknownCount[number]; i++) {
+            if (unknown[number * 8 + i] == space) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues a move on every covered neighbor of a number
+     */
+    private boolean queueAll(int number, IGame.ClickAction action) {
+        var added = false;
+        for (var i = 0; i < unknownCount[number]; i++) {
+            added |= queue(unknown[number * 8 + i], action);
+        }
+        return added;
+    }
+
+    /**
+     * Queues a move on every covered neighbor of b that a does not touch
+     */
+    private boolean queueOutside(int b, int a, IGame.ClickAction action) {
+        var added = false;
+        for (var i = 0; i < unknownCount[b]; i++) {
+            var space = unknown[b * 8 + i];
+            if (!contains(a, space)) {
+                added |= queue(space, action);
+            }
+        }
+        return added;
+    }
+
+    private boolean queue(int space, IGame.ClickAction action) {
+        if (queued[space]) {
+            return false;
+        }
+        queued[space] = true;
+        pending.add(new Move(space % width, space / width, action));
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package edu.wou.cs361.minesweeper.solver;
+
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.model.Space;
+
+/**
+ * One decision made by a {@link Solver}: a click on a space
+ */
+public final class Move {
+    // data
+    private final int x;
+    private final int y;
+    private final IGame.ClickAction action;
+
+    /**
+     * Creates a move
+     *
+     * @param x      X value of the space
+     * @param y      Y value of the space
+     * @param action Type of click
+     */
+    public Move(int x, int y, IGame.ClickAction action) {
+        this.x = x;
+        this.y = y;
+        this.action = action;
+    }
+
+    /**
+     * Makes this move on a game
+     *
+     * @param game Game to click
+     */
+    public void apply(IGame game) {
+        game.handleClick(new Space(x, y), action);
+    }
+
+    /**
+     * Gets the X value of the space
+     *
+     * @return x
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the Y value of the space
+     *
+     * @return y
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Gets the type of click
+     *
+     * @return click action
+     */
+    public IGame.ClickAction getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return action + " (" + x + ", " + y + ")";
+    }
+}
@@ -0,0 +1,21 @@
+package edu.wou.cs361.minesweeper.solver;
+
+import edu.wou.cs361.minesweeper.game.IGame;
+
+/**
+ * Plays a game one decision at a time, using only what the player can see
+ */
+public interface Solver {
+    /**
+     * Picks the next move on a game
+     *
+     * @param game Game being played, only read through its visible pieces
+     * @return the next move, or null if nothing can be deduced without guessing
+     */
+    Move next(IGame game);
+
+    /**
+     * Forgets everything about the last game, called before a new game is played
+     */
+    void reset();
+}
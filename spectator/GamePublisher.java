@@ -0,0 +1,342 @@
+package edu.wou.cs361.minesweeper.spectator;
+
+import edu.wou.cs361.minesweeper.game.BoardChangeEvent;
+import edu.wou.cs361.minesweeper.game.BoardListener;
+import edu.wou.cs361.minesweeper.game.GameState;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.model.Piece;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Streams a live game to any number of spectators, such as recorders or
+ * spectator views, using {@link Flow} backpressure
+ * <br>
+ * Each subscriber has its own bounded buffer and only receives as many
+ * events as it requested. The game thread only copies the changed pieces and
+ * adds the event to each buffer; delivery runs on the executor. When a
+ * subscriber's buffer is full, the {@link OverflowPolicy} decides whether its
+ * backlog collapses into a single snapshot or the subscriber is dropped, so a
+ * slow consumer never holds up the game.
+ * <br>
+ * Like the game itself, {@link #subscribe(Flow.Subscriber)} must be called on
+ * the thread running the game operations, as it reads the board for the first snapshot.
+ */
+public class GamePublisher implements Flow.Publisher<SpectatorEvent>, BoardListener, AutoCloseable {
+    /**
+     * What to do when a subscriber falls a full buffer behind
+     */
+    public enum OverflowPolicy {
+        /**
+         * Replace the subscriber's backlog with a snapshot of the board
+         */
+        SNAPSHOT,
+        /**
+         * Cancel the subscription with an error
+         */
+        DROP
+    }
+
+    private static final int DEFAULT_BUFFER = 256;
+
+    // data
+    private final IGame game;
+    private final Executor executor;
+    private final int bufferSize;
+    private final OverflowPolicy policy;
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long sequence;
+    private volatile boolean closed;
+
+    /**
+     * Creates a publisher delivering on the common pool, with a 256 event
+     * buffer per subscriber that collapses into a snapshot when full
+     *
+     * @param game Game to publish
+     */
+    public GamePublisher(IGame game) {
+        this(game, ForkJoinPool.commonPool(), DEFAULT_BUFFER, OverflowPolicy.SNAPSHOT);
+    }
+
+    /**
+     * Creates a publisher and starts listening to the game
+     *
+     * @param game       Game to publish
+     * @param executor   Runs the delivery to subscribers
+     * @param bufferSize Events buffered per subscriber before the policy applies
+     * @param policy     What to do with subscribers whose buffer is full
+     */
+    public GamePublisher(IGame game, Executor executor, int bufferSize, OverflowPolicy policy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.game = game;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+        game.addBoardListener(this);
+    }
+
+    /**
+     * Adds a subscriber. Its first event is a snapshot of the board
+     *
+     * @param subscriber Subscriber to add
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super SpectatorEvent> subscriber) {
+        var subscription = new Subscription(subscriber);
+        if (closed) {
+            subscriber.onSubscribe(subscription);
+            subscriber.onComplete();
+            return;
+        }
+        subscription.buffer.add(snapshot());
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Copies the changed pieces and queues them for every subscriber. Called on the game thread
+     *
+     * @param event Changes made by one operation
+     */
+    @Override
+    public void boardChanged(BoardChangeEvent event) {
+        if (subscriptions.isEmpty()) {
+            sequence++;
+            return;
+        }
+
+        // a new game or restart goes out as a snapshot, which replaces anything still queued
+        if (event.isWholeBoard()) {
+            sequence++;
+            var snapshot = snapshot();
+            for (var subscription : subscriptions) {
+                subscription.collapse(snapshot);
+            }
+            return;
+        }
+
+        var size = (int) Math.min(event.size(), Integer.MAX_VALUE);
+        var cells = new int[size];
+        var pieces = new byte[size];
+        var width = event.getWidth();
+        var position = new int[1];
+        IntConsumer copy = index -> {
+            cells[position[0]] = index;
+            pieces[position[0]] = code(game.getPiece(index % width, index / width));
+            position[0]++;
+        };
+        event.forEachCell(copy);
+        event.forEachRevealedMine(copy);
+        var item = new SpectatorEvent(SpectatorEvent.Type.CHANGES, ++sequence, width, game.getHeight(),
+                cells, pieces, event.getState(), event.getRemainingMines());
+
+        // built at most once per event, shared by every subscriber that overflows
+        SpectatorEvent snapshot = null;
+        for (var subscription : subscriptions) {
+            if (subscription.offer(item)) {
+                continue;
+            }
+            if (policy == OverflowPolicy.DROP) {
+                subscription.fail(new IllegalStateException("Spectator fell " + bufferSize + " events behind"));
+                continue;
+            }
+            if (snapshot == null) {
+                snapshot = snapshot();
+            }
+            subscription.collapse(snapshot);
+        }
+    }
+
+    /**
+     * Gets the number of current subscribers
+     *
+     * @return number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops listening to the game and completes every subscriber once its buffer is delivered
+     */
+    @Override
+    public void close() {
+        closed = true;
+        game.removeBoardListener(this);
+        for (var subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /* Internal use */
+
+    private SpectatorEvent snapshot() {
+        var width = game.getWidth();
+        var height = game.getHeight();
+        var pieces = new byte[width * height];
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                pieces[y * width + x] = code(game.getPiece(x, y));
+            }
+        }
+        return new SpectatorEvent(SpectatorEvent.Type.SNAPSHOT, sequence, width, height, null, pieces,
+                GameState.of(game), game.getRemainingMines());
+    }
+
+    private static byte code(Piece piece) {
+        return (byte) (piece == null ? 0 : piece.ordinal() + 1);
+    }
+
+    /**
+     * One subscriber's buffer and demand
+     */
+    private class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super SpectatorEvent> subscriber;
+
+        // guarded by this
+        private final ArrayDeque<SpectatorEvent> buffer = new ArrayDeque<>();
+        private long demand;
+        private boolean completing;
+        private Throwable error;
+
+        // number of drain requests, only the one that raises it from 0 runs the drain
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        Subscription(Flow.Subscriber<? super SpectatorEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested " + n + " events, must be positive");
+                } else {
+                    // saturate rather than overflow, as the spec allows
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        /**
+         * Adds an event unless the buffer is full
+         *
+         * @param item Event to add
+         * @return false if the buffer was full
+         */
+        boolean offer(SpectatorEvent item) {
+            synchronized (this) {
+                if (buffer.size() >= bufferSize) {
+                    return false;
+                }
+                buffer.add(item);
+            }
+            drain();
+            return true;
+        }
+
+        /**
+         * Replaces everything not yet delivered with a snapshot
+         *
+         * @param snapshot Snapshot of the board
+         */
+        void collapse(SpectatorEvent snapshot) {
+            synchronized (this) {
+                buffer.clear();
+                buffer.add(snapshot);
+            }
+            drain();
+        }
+
+        void fail(Throwable cause) {
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+                error = cause;
+            }
+            drain();
+        }
+
+        void complete() {
+            subscriptions.remove(this);
+            synchronized (this) {
+                completing = true;
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::run);
+            }
+        }
+
+        /**
+         * Delivers buffered events while there is demand, on the executor
+         */
+        private void run() {
+            var missed = 1;
+            while (true) {
+                while (!cancelled) {
+                    SpectatorEvent next;
+                    Throwable failure;
+                    boolean done;
+                    synchronized (this) {
+                        failure = error;
+                        next = failure == null && demand > 0 ? buffer.poll() : null;
+                        if (next != null) {
+                            demand--;
+                        }
+                        done = completing && buffer.isEmpty();
+                    }
+
+                    if (failure != null) {
+                        cancel();
+                        subscriber.onError(failure);
+                        return;
+                    }
+                    if (next != null) {
+                        try {
+                            subscriber.onNext(next);
+                        } catch (RuntimeException e) {
+                            cancel();
+                            subscriber.onError(e);
+                            return;
+                        }
+                        continue;
+                    }
+                    if (done) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    break;
+                }
+
+                missed = work.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
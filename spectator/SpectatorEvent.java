@@ -0,0 +1,147 @@
+package edu.wou.cs361.minesweeper.spectator;
+
+import edu.wou.cs361.minesweeper.game.GameState;
+import edu.wou.cs361.minesweeper.model.Piece;
+
+/**
+ * One item of a live game stream, either the pieces changed by one operation
+ * or a snapshot of the whole board
+ * <br>
+ * Pieces are copied on the game thread when the event is made, so a
+ * spectator never needs to touch the game itself.
+ */
+public final class SpectatorEvent {
+    private static final Piece[] PIECES = Piece.values();
+
+    /**
+     * Kinds of event
+     */
+    public enum Type {
+        /**
+         * Pieces changed by a single operation
+         */
+        CHANGES,
+        /**
+         * Every piece on the board, sent first and whenever a backlog is collapsed
+         */
+        SNAPSHOT
+    }
+
+    // data
+    private final Type type;
+    private final long sequence;
+    private final int width, height;
+    private final int[] cells;
+    private final byte[] pieces;
+    private final GameState state;
+    private final int remainingMines;
+
+    /**
+     * Creates a new event
+     *
+     * @param type           Kind of event
+     * @param sequence       Number of the last operation included
+     * @param width          Width of the board
+     * @param height         Height of the board
+     * @param cells          Changed cell indexes, null for a snapshot
+     * @param pieces         Piece codes for each changed cell, or for every cell in a snapshot
+     * @param state          Game state after the operation
+     * @param remainingMines Remaining mines after the operation
+     */
+    SpectatorEvent(Type type, long sequence, int width, int height, int[] cells, byte[] pieces,
+                   GameState state, int remainingMines) {
+        this.type = type;
+        this.sequence = sequence;
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+        this.pieces = pieces;
+        this.state = state;
+        this.remainingMines = remainingMines;
+    }
+
+    /**
+     * Gets the kind of event
+     *
+     * @return the event type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of the last operation this event includes. Sequences
+     * skip when a backlog was collapsed into a snapshot
+     *
+     * @return the sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the width of the board
+     *
+     * @return The width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board
+     *
+     * @return The height of the board
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of pieces in the event
+     *
+     * @return number of changed cells, or every cell for a snapshot
+     */
+    public int size() {
+        return pieces.length;
+    }
+
+    /**
+     * Gets the cell index of a piece in the event
+     *
+     * @param i Position in the event, from 0 to {@link #size()}
+     * @return cell index, {@code y * width + x}
+     */
+    public int getCell(int i) {
+        return cells == null ? i : cells[i];
+    }
+
+    /**
+     * Gets a piece in the event
+     *
+     * @param i Position in the event, from 0 to {@link #size()}
+     * @return the piece, or null if the space is covered
+     */
+    public Piece getPiece(int i) {
+        var code = pieces[i];
+        return code == 0 ? null : PIECES[code - 1];
+    }
+
+    /**
+     * Gets the game state after the event
+     *
+     * @return the game state
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the remaining mines after the event
+     *
+     * @return remaining mines
+     */
+    public int getRemainingMines() {
+        return remainingMines;
+    }
+}
@@ -0,0 +1,127 @@
+package edu.wou.cs361.minesweeper.stats;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+
+/**
+ * Result of one finished game, stored as a fixed size record so the
+ * history file can be read or skipped through without parsing
+ */
+public final class GameRecord {
+    /**
+     * Size of a record on disk
+     */
+    public static final int BYTES = 24;
+
+    /**
+     * Orders wins fastest first, with ties going to the earlier game
+     */
+    public static final Comparator<GameRecord> BEST_TIME = Comparator
+            .comparingInt(GameRecord::getMillis)
+            .thenComparingLong(GameRecord::getTimestamp);
+
+    // flag bits
+    private static final int WON = 1;
+
+    // data
+    private final long timestamp;
+    private final int millis;
+    private final int clicks;
+    private final int boardValue;
+    private final boolean won;
+
+    /**
+     * Creates a record
+     *
+     * @param timestamp  When the game ended, in epoch milliseconds
+     * @param millis     Time from the first click to the end of the game
+     * @param won        Whether the player won
+     * @param clicks     Clicks made during the game
+     * @param boardValue 3BV of the board, -1 if unknown
+     */
+    public GameRecord(long timestamp, int millis, boolean won, int clicks, int boardValue) {
+        this.timestamp = timestamp;
+        this.millis = millis;
+        this.won = won;
+        this.clicks = clicks;
+        this.boardValue = boardValue;
+    }
+
+    /**
+     * Writes this record at the buffer's position
+     *
+     * @param buffer Destination with at least {@link #BYTES} remaining
+     */
+    void write(ByteBuffer buffer) {
+        buffer.putLong(timestamp)
+                .putInt(millis)
+                .putInt(clicks)
+                .putInt(boardValue)
+                .putInt(won ? WON : 0);
+    }
+
+    /**
+     * Reads a record at the buffer's position
+     *
+     * @param buffer Source with at least {@link #BYTES} remaining
+     * @return the record read
+     */
+    static GameRecord read(ByteBuffer buffer) {
+        var timestamp = buffer.getLong();
+        var millis = buffer.getInt();
+        var clicks = buffer.getInt();
+        var boardValue = buffer.getInt();
+        var flags = buffer.getInt();
+        return new GameRecord(timestamp, millis, (flags & WON) != 0, clicks, boardValue);
+    }
+
+    /**
+     * Gets when the game ended
+     *
+     * @return epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the time from the first click to the end of the game
+     *
+     * @return milliseconds played
+     */
+    public int getMillis() {
+        return millis;
+    }
+
+    /**
+     * Checks if the player won
+     *
+     * @return true for a win
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Gets the clicks made during the game
+     *
+     * @return number of clicks
+     */
+    public int getClicks() {
+        return clicks;
+    }
+
+    /**
+     * Gets the 3BV of the board
+     *
+     * @return 3BV, or -1 if unknown
+     */
+    public int getBoardValue() {
+        return boardValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s in %.3fs, %d clicks, 3BV %d", won ? "Won" : "Lost", millis / 1000.0, clicks, boardValue);
+    }
+}
@@ -0,0 +1,46 @@
+package edu.wou.cs361.minesweeper.stats;
+
+import java.util.List;
+
+/**
+ * Totals and best times for one board size, read from the index alone
+ */
+public final class Leaderboard {
+    // data
+    private final long played;
+    private final long won;
+    private final List<GameRecord> best;
+
+    Leaderboard(long played, long won, List<GameRecord> best) {
+        this.played = played;
+        this.won = won;
+        this.best = List.copyOf(best);
+    }
+
+    /**
+     * Gets the number of games recorded
+     *
+     * @return games played
+     */
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * Gets the number of games won
+     *
+     * @return games won
+     */
+    public long getWon() {
+        return won;
+    }
+
+    /**
+     * Gets the fastest wins, fastest first
+     *
+     * @return best times
+     */
+    public List<GameRecord> getBest() {
+        return best;
+    }
+}
@@ -0,0 +1,316 @@
+package edu.wou.cs361.minesweeper.stats;
+
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.game.Topology;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the result of every finished game, one history per board size
+ * <br>
+ * Each board size has an append-only history file of fixed size
+ * {@link GameRecord}s and a small index holding the totals and the fastest
+ * wins in order. Recording a game appends to the history and rewrites the
+ * index; reading a leaderboard only reads the front of the index, so it stays
+ * fast however long the history grows. If the index is missing or does not
+ * match the history, for example after a crash between the two writes, it is
+ * rebuilt from the history.
+ */
+public class StatsStore {
+    /**
+     * Wins kept in the index for each board size
+     */
+    public static final int INDEX_SIZE = 1000;
+
+    // index layout: magic, version, history length, played, won, entry count, entries
+    private static final int MAGIC = 0x4D535358;
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 8 + 8 + 4;
+
+    private static final String HISTORY = ".log";
+    private static final String INDEX = ".idx";
+
+    private static StatsStore defaultStore;
+
+    // data
+    private final Path directory;
+
+    /**
+     * Creates a store in a folder
+     *
+     * @param directory Folder for the history and index files, created if missing
+     * @throws IOException If the folder cannot be created
+     */
+    public StatsStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Gets the store in the user's home folder
+     *
+     * @return the shared store
+     * @throws IOException If the folder cannot be created
+     */
+    public static synchronized StatsStore getDefault() throws IOException {
+        if (defaultStore == null) {
+            defaultStore = new StatsStore(Path.of(System.getProperty("user.home"), ".minesweeper", "stats"));
+        }
+        return defaultStore;
+    }
+
+    /**
+     * Gets the key results of a game are stored under. Each of the standard
+     * difficulties has a fixed size, so sizes separate them as well as custom boards.
+     * Boards that are not square grids add their topology, the same size plays differently
+     *
+     * @param game Game to get the key for
+     * @return key such as "16x16-40" or "16x16-40-hex"
+     */
+    public static String key(IGame game) {
+        var key = key(game.getWidth(), game.getHeight(), game.getMineCount());
+        if (game.getTopology() != Topology.SQUARE) {
+            key += "-" + game.getTopology().name().toLowerCase(Locale.ROOT);
+        }
+        return key;
+    }
+
+    /**
+     * Gets the key for a board size
+     *
+     * @param width     Width of the board
+     * @param height    Height of the board
+     * @param mineCount Total mines
+     * @return key such as "16x16-40"
+     */
+    public static String key(int width, int height, int mineCount) {
+        return width + "x" + height + "-" + mineCount;
+    }
+
+    /**
+     * Records a finished game
+     *
+     * @param key    Board size from {@link #key(IGame)}
+     * @param record Result of the game
+     * @throws IOException If the files cannot be written
+     */
+    public synchronized void record(String key, GameRecord record) throws IOException {
+        var history = directory.resolve(key + HISTORY);
+        var index = readIndex(key, history, INDEX_SIZE);
+        if (index == null) {
+            index = rebuild(history);
+        }
+
+        // history first, an index that falls behind is rebuilt on the next read
+        var buffer = ByteBuffer.allocate(GameRecord.BYTES);
+        record.write(buffer);
+        buffer.flip();
+        try (var channel = FileChannel.open(history, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // drop a torn record left by a crash so the rest stay aligned
+            var end = channel.size() - channel.size() % GameRecord.BYTES;
+            channel.truncate(end).position(end);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            index.historyLength = channel.size();
+        }
+
+        index.played++;
+        if (record.isWon()) {
+            index.won++;
+            index.insert(record);
+        }
+        writeIndex(key, index);
+    }
+
+    /**
+     * Reads the totals and best times for a board size
+     *
+     * @param key   Board size from {@link #key(IGame)}
+     * @param count Most best times to return
+     * @return the leaderboard, empty if nothing was recorded
+     * @throws IOException If the files cannot be read
+     */
+    public synchronized Leaderboard leaderboard(String key, int count) throws IOException {
+        var history = directory.resolve(key + HISTORY);
+        var index = readIndex(key, history, count);
+        if (index == null) {
+            // stale or missing, rebuild it once
+            index = rebuild(history);
+            writeIndex(key, index);
+        }
+        var best = index.best.subList(0, Math.min(count, index.best.size()));
+        return new Leaderboard(index.played, index.won, best);
+    }
+
+    /* Internal use */
+
+    /**
+     * Reads the index for a board size
+     *
+     * @param key     Board size
+     * @param history History file the index must match
+     * @param limit   Most entries to read
+     * @return the index, or null if it is missing or stale
+     * @throws IOException If the index cannot be read
+     */
+    private Index readIndex(String key, Path history, int limit) throws IOException {
+        var file = directory.resolve(key + INDEX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = readFully(channel, 0, HEADER_BYTES);
+            var historyLength = size(history);
+            if (header == null || header.getInt() != MAGIC || header.getShort() != VERSION
+                    || header.getLong() != historyLength) {
+                return null;
+            }
+
+            var index = new Index();
+            index.historyLength = historyLength;
+            index.played = header.getLong();
+            index.won = header.getLong();
+            var entries = Math.min(limit, header.getInt());
+
+            // only the entries asked for, the rest of the file is never read
+            var body = readFully(channel, HEADER_BYTES, entries * GameRecord.BYTES);
+            if (body == null) {
+                return null;
+            }
+            for (var i = 0; i < entries; i++) {
+                index.best.add(GameRecord.read(body));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Scans the whole history, keeping only the fastest wins
+     *
+     * @param history History file
+     * @return the rebuilt index
+     * @throws IOException If the history cannot be read
+     */
+    private Index rebuild(Path history) throws IOException {
+        var index = new Index();
+        if (!Files.exists(history)) {
+            return index;
+        }
+
+        // slowest kept win on top, so it is the one pushed out
+        var fastest = new PriorityQueue<GameRecord>(INDEX_SIZE + 1, GameRecord.BEST_TIME.reversed());
+        try (var channel = FileChannel.open(history, StandardOpenOption.READ)) {
+            // a torn record at the end from a crash is ignored
+            var length = channel.size() - channel.size() % GameRecord.BYTES;
+            var buffer = ByteBuffer.allocate(GameRecord.BYTES * 4096);
+            var position = 0L;
+            while (position < length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - position));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("History " + history + " ended early");
+                    }
+                }
+                position += buffer.limit();
+                buffer.flip();
+
+                while (buffer.hasRemaining()) {
+                    var record = GameRecord.read(buffer);
+                    index.played++;
+                    if (record.isWon()) {
+                        index.won++;
+                        fastest.add(record);
+                        if (fastest.size() > INDEX_SIZE) {
+                            fastest.poll();
+                        }
+                    }
+                }
+            }
+            index.historyLength = channel.size();
+        }
+
+        index.best.addAll(fastest);
+        index.best.sort(GameRecord.BEST_TIME);
+        return index;
+    }
+
+    private void writeIndex(String key, Index index) throws IOException {
+        var buffer = ByteBuffer.allocate(HEADER_BYTES + index.best.size() * GameRecord.BYTES);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putLong(index.historyLength)
+                .putLong(index.played)
+                .putLong(index.won)
+                .putInt(index.best.size());
+        for (var record : index.best) {
+            record.write(buffer);
+        }
+        buffer.flip();
+
+        // written beside the old one and swapped in, so readers never see half an index
+        var temp = directory.resolve(key + INDEX + ".tmp");
+        try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, directory.resolve(key + INDEX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static long size(Path file) throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    /**
+     * Index contents while it is being updated
+     */
+    private static class Index {
+        long historyLength;
+        long played;
+        long won;
+        final List<GameRecord> best = new ArrayList<>();
+
+        /**
+         * Adds a win in order, dropping the slowest past {@link #INDEX_SIZE}
+         *
+         * @param record Win to add
+         */
+        void insert(GameRecord record) {
+            var position = Collections.binarySearch(best, record, GameRecord.BEST_TIME);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            if (position >= INDEX_SIZE) {
+                return;
+            }
+            best.add(position, record);
+            if (best.size() > INDEX_SIZE) {
+                best.remove(best.size() - 1);
+            }
+        }
+    }
+}
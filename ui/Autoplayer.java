@@ -0,0 +1,167 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.game.BoardChangeEvent;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.solver.DeductionSolver;
+import edu.wou.cs361.minesweeper.solver.Move;
+import edu.wou.cs361.minesweeper.solver.Solver;
+
+import javax.swing.*;
+import java.util.Random;
+
+/**
+ * Plays a window's game with a {@link Solver}, for watching and demos
+ * <br>
+ * Moves are made on the {@link GameWorker}'s game thread in short slices, so
+ * clicks from the window still get their turn in between, and the worker only
+ * repaints at its frame rate however many moves a slice makes. When the solver
+ * cannot prove a move, a random covered space is clicked. Playing stops when
+ * the game ends, and games the player touched are left out of the statistics.
+ */
+public class Autoplayer {
+    // longest a slice of unlimited play keeps the game thread
+    private static final long SLICE_NANOS = 4_000_000;
+
+    // data
+    private final GameWorker worker;
+    private final Solver solver = new DeductionSolver();
+    private final Random random = new Random();
+    private final Runnable stopped;
+
+    // settings, changed from the event thread
+    private volatile boolean running;
+    private volatile int movesPerSecond;
+
+    // bumped on every start so a slice from an earlier run does not continue
+    private volatile int run;
+
+    /**
+     * Creates a player for a window's game
+     *
+     * @param game    Game being played, used to follow new games and restarts
+     * @param worker  Worker running the window's game
+     * @param stopped Called on the event thread when playing stops by itself
+     */
+    public Autoplayer(IGame game, GameWorker worker, Runnable stopped) {
+        this.worker = worker;
+        this.stopped = stopped;
+
+        // a new game or restart leaves the solver's pending moves pointing at the old board
+        game.addBoardListener(this::boardChanged);
+    }
+
+    /**
+     * Starts playing until the game ends or {@link #pause()} is called
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        var current = ++run;
+        worker.submit(game -> slice(game, current), null);
+    }
+
+    /**
+     * Stops playing after the current slice
+     */
+    public void pause() {
+        running = false;
+    }
+
+    /**
+     * Makes one move, pausing first if playing
+     */
+    public void step() {
+        pause();
+        worker.submit(game -> {
+            if (!game.gameOver()) {
+                move(game);
+            }
+        }, null);
+    }
+
+    /**
+     * Checks if the player is running
+     *
+     * @return true if playing
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Limits how fast moves are made
+     *
+     * @param movesPerSecond Most moves a second, 0 for as fast as possible
+     */
+    public void setMovesPerSecond(int movesPerSecond) {
+        this.movesPerSecond = Math.max(0, movesPerSecond);
+    }
+
+    /* Internal use */
+
+    /**
+     * Makes moves for one slice, then queues the next, called on the game thread
+     *
+     * @param game    Game to play
+     * @param current Run the slice belongs to
+     */
+    private void slice(IGame game, int current) {
+        var limit = movesPerSecond;
+        var deadline = System.nanoTime() + SLICE_NANOS;
+        do {
+            if (!running || run != current) {
+                return;
+            }
+            if (game.gameOver()) {
+                running = false;
+                SwingUtilities.invokeLater(stopped);
+                return;
+            }
+            move(game);
+        } while (limit == 0 && System.nanoTime() < deadline);
+
+        if (limit == 0) {
+            worker.submit(next -> slice(next, current), null);
+        } else {
+            worker.submitLater(next -> slice(next, current), 1_000_000_000L / limit);
+        }
+    }
+
+    /**
+     * Makes the solver's next move, or a guess if it has none
+     */
+    private void move(IGame game) {
+        worker.skipRecord();
+        var move = solver.next(game);
+        if (move == null) {
+            move = guess(game);
+        }
+        if (move != null) {
+            move.apply(game);
+        }
+    }
+
+    /**
+     * Picks a random covered space, always safe on the first click
+     */
+    private Move guess(IGame game) {
+        var width = game.getWidth();
+        var spaces = width * game.getHeight();
+        var start = random.nextInt(spaces);
+        for (var i = 0; i < spaces; i++) {
+            var index = (start + i) % spaces;
+            if (game.getPiece(index % width, index / width) == null) {
+                return new Move(index % width, index / width, IGame.ClickAction.DEFAULT);
+            }
+        }
+        return null;
+    }
+
+    private void boardChanged(BoardChangeEvent event) {
+        if (event.isWholeBoard()) {
+            solver.reset();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.game.Topology;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Grid of spaces that stretches to fill the window like a plain grid, but
+ * scrolls once the spaces would get smaller than {@link #MIN_CELL} pixels
+ * <br>
+ * Hexagonal boards shift every odd row half a space right, so each space
+ * sits against the six neighbors the game gives it.
+ */
+public class BoardPanel extends JPanel implements Scrollable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Smallest size of a space before the board scrolls
+     */
+    public static final int MIN_CELL = 16;
+
+    /**
+     * Creates a panel for a board
+     *
+     * @param width  Width of the board
+     * @param height Height of the board
+     */
+    public BoardPanel(int width, int height) {
+        this(width, height, Topology.SQUARE);
+    }
+
+    /**
+     * Creates a panel for a board laid out for its topology
+     *
+     * @param width    Width of the board
+     * @param height   Height of the board
+     * @param topology How the spaces connect
+     */
+    public BoardPanel(int width, int height, Topology topology) {
+        super(topology == Topology.HEX ? new HexLayout(width, height) : new GridLayout(height, width));
+        // the shifted rows need an extra half space
+        var columns = topology == Topology.HEX ? width * 2 + 1 : width * 2;
+        setPreferredSize(new Dimension(columns * MIN_CELL / 2, height * MIN_CELL));
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return MIN_CELL;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return getParent().getWidth() >= getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent().getHeight() >= getPreferredSize().height;
+    }
+
+    /**
+     * Places spaces in rows like a grid, with the odd rows shifted half a space
+     */
+    private static class HexLayout implements LayoutManager {
+        private final int width, height;
+
+        HexLayout(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void layoutContainer(Container parent) {
+            var insets = parent.getInsets();
+            var area = parent.getWidth() - insets.left - insets.right;
+            var cellHeight = (parent.getHeight() - insets.top - insets.bottom) / (double) height;
+            // half spaces across, so both row kinds end at the same edge
+            var half = area / (width * 2.0 + 1);
+            for (var i = 0; i < parent.getComponentCount(); i++) {
+                var x = i % width;
+                var y = i / width;
+                var left = (int) Math.round((x * 2 + (y & 1)) * half);
+                var right = (int) Math.round((x * 2 + 2 + (y & 1)) * half);
+                var top = (int) Math.round(y * cellHeight);
+                var bottom = (int) Math.round((y + 1) * cellHeight);
+                parent.getComponent(i).setBounds(insets.left + left, insets.top + top, right - left, bottom - top);
+            }
+        }
+
+        @Override
+        public Dimension preferredLayoutSize(Container parent) {
+            return parent.getPreferredSize();
+        }
+
+        @Override
+        public Dimension minimumLayoutSize(Container parent) {
+            return new Dimension(width + 1, height);
+        }
+
+        @Override
+        public void addLayoutComponent(String name, Component component) {
+        }
+
+        @Override
+        public void removeLayoutComponent(Component component) {
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.game.BoardChangeEvent;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.model.Piece;
+
+import java.util.Arrays;
+
+/**
+ * The event thread's copy of the board, holding the piece of every space and
+ * whether its button looks raised
+ * <br>
+ * The game is only safe to read on its own thread, where a reset or a reveal
+ * can be changing it at any moment. The worker copies the pieces of every
+ * changed space into an {@link Update} as the game announces the change, and
+ * the event thread applies the updates here before refreshing the buttons,
+ * so painting never touches the game. Each space is one byte, the piece's
+ * ordinal plus one with the top bit set while the space looks enabled.
+ */
+public final class BoardView {
+    private static final Piece[] PIECES = Piece.values();
+    private static final int ENABLED = 0x80;
+
+    // data
+    private final int width, height;
+    private final byte[] cells;
+
+    /**
+     * Copies the whole board. Called before the game is handed to its thread,
+     * or on that thread
+     *
+     * @param game Game to copy
+     */
+    public BoardView(IGame game) {
+        this.width = game.getWidth();
+        this.height = game.getHeight();
+        this.cells = new byte[width * height];
+        for (var index = 0; index < cells.length; index++) {
+            cells[index] = read(game, index % width, index / width);
+        }
+    }
+
+    /**
+     * Gets the width of the board
+     *
+     * @return number of columns
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board
+     *
+     * @return number of rows
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the piece shown on a space
+     *
+     * @param index Cell index, y * width + x
+     * @return the piece, or null for a covered space
+     */
+    public Piece getPiece(int index) {
+        var code = cells[index] & (ENABLED - 1);
+        return code == 0 ? null : PIECES[code - 1];
+    }
+
+    /**
+     * Checks if a space looks enabled, or pressed up
+     *
+     * @param index Cell index, y * width + x
+     * @return true if the space looks enabled
+     */
+    public boolean isEnabled(int index) {
+        return (cells[index] & ENABLED) != 0;
+    }
+
+    /* Internal use */
+
+    private static byte read(IGame game, int x, int y) {
+        var piece = game.getPiece(x, y);
+        var code = piece == null ? 0 : piece.ordinal() + 1;
+        return (byte) (game.isEnabled(x, y) ? code | ENABLED : code);
+    }
+
+    /**
+     * Copies the spaces one change touched, called on the game thread as the
+     * game announces it
+     *
+     * @param game  Game that changed
+     * @param event The change
+     * @return the spaces to apply on the event thread
+     */
+    static Update capture(IGame game, BoardChangeEvent event) {
+        var width = game.getWidth();
+        if (event.isWholeBoard()) {
+            // every space in order, which already shows any revealed mines
+            var values = new byte[width * game.getHeight()];
+            for (var index = 0; index < values.length; index++) {
+                values[index] = read(game, index % width, index / width);
+            }
+            return new Update(null, values, values.length, values.length);
+        }
+
+        var expected = (int) Math.max(1, Math.min(event.size(), Integer.MAX_VALUE));
+        var update = new Update(new int[expected], new byte[expected], 0, 0);
+        event.forEachCell(index -> update.add(index, read(game, index % width, index / width)));
+        update.cellCount = update.count;
+        if (event.isMinesRevealed()) {
+            event.forEachRevealedMine(index -> update.add(index, read(game, index % width, index / width)));
+        }
+        return update;
+    }
+
+    /**
+     * Writes the spaces of an update into the view, on the event thread
+     *
+     * @param update Spaces copied by {@link #capture(IGame, BoardChangeEvent)}
+     */
+    void apply(Update update) {
+        if (update.indices == null) {
+            System.arraycopy(update.values, 0, cells, 0, update.count);
+            return;
+        }
+        for (var i = 0; i < update.count; i++) {
+            cells[update.indices[i]] = update.values[i];
+        }
+    }
+
+    /**
+     * The spaces one change touched and what they hold after it, copied on the
+     * game thread. The changed spaces come first, then any mines the change revealed
+     */
+    public static final class Update {
+        // null for a whole board, where the values are every space in order
+        private int[] indices;
+        private byte[] values;
+        private int count;
+        private int cellCount;
+
+        private Update(int[] indices, byte[] values, int count, int cellCount) {
+            this.indices = indices;
+            this.values = values;
+            this.count = count;
+            this.cellCount = cellCount;
+        }
+
+        /**
+         * Checks if the change covered the whole board, such as a new game
+         *
+         * @return true if every space was copied
+         */
+        public boolean isWholeBoard() {
+            return indices == null;
+        }
+
+        /**
+         * Gets how many spaces the change itself touched, not counting revealed mines
+         *
+         * @return number of changed spaces
+         */
+        public int getCellCount() {
+            return cellCount;
+        }
+
+        /**
+         * Gets how many spaces were copied, the changed spaces and then the revealed mines
+         *
+         * @return number of spaces
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Gets a copied space
+         *
+         * @param i Position in the update, below {@link #size()}
+         * @return cell index, y * width + x
+         */
+        public int getIndex(int i) {
+            return indices == null ? i : indices[i];
+        }
+
+        private void add(int index, byte value) {
+            if (count == indices.length) {
+                var larger = Math.max(16, count * 2);
+                indices = Arrays.copyOf(indices, larger);
+                values = Arrays.copyOf(values, larger);
+            }
+            indices[count] = index;
+            values[count] = value;
+            count++;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package edu.wou.cs361.minesweeper.ui;
 
 import edu.wou.cs361.minesweeper.game.Game;
 import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.game.Topology;
 
 import javax.swing.*;
 import javax.swing.JFormattedTextField.AbstractFormatter;
@@ -21,6 +22,7 @@ import java.util.function.IntSupplier;
 public class CustomMenu extends JPanel implements ChangeListener, KeyListener {
     // data
     private JSlider width, height;
+    private JComboBox<Topology> topology;
     private JFormattedTextField fieldMines, fieldCheats;
     private IntSupplier maxMines, maxCheats;
 
@@ -29,7 +31,7 @@ public class CustomMenu extends JPanel implements ChangeListener, KeyListener {
      */
     public CustomMenu() {
         // start with an empty spot
-        setLayout(new GridLayout(6, 1));
+        setLayout(new GridLayout(8, 1));
 
         // next, create the sliders
         width = new Slider();
@@ -43,12 +45,18 @@ public class CustomMenu extends JPanel implements ChangeListener, KeyListener {
         height.addChangeListener(this);
         add(height);
 
+        topology = new JComboBox<>(Topology.values());
+        topology.addActionListener(e -> clampFields());
+        add(new JLabel("Topology", JLabel.CENTER));
+        add(topology);
+
         var c = new Container();
         c.setLayout(new GridLayout(2, 2));
         c.add(new JLabel("Mines"));
         c.add(new JLabel("Cheats"));
 
-        maxMines = () -> width.getValue() * height.getValue() - 9;
+        // the first click and its neighbors are always clear
+        maxMines = () -> width.getValue() * height.getValue() - 1 - selectedTopology().getMaxNeighbors();
         var format = new Formatter(maxMines);
         fieldMines = new JFormattedTextField(format);
         fieldMines.addKeyListener(this);
@@ -72,7 +80,7 @@ public class CustomMenu extends JPanel implements ChangeListener, KeyListener {
     public IGame createBoard() {
         var mines = Integer.parseInt(fieldMines.getText());
         var cheats = Integer.parseInt(fieldCheats.getText());
-        return new Game(width.getValue(), height.getValue(), mines, cheats);
+        return new Game(width.getValue(), height.getValue(), mines, cheats, selectedTopology());
     }
 
     @Override
@@ -80,6 +88,17 @@ public class CustomMenu extends JPanel implements ChangeListener, KeyListener {
         if (((JSlider) event.getSource()).getValueIsAdjusting()) {
             return;
         }
+        clampFields();
+    }
+
+    private Topology selectedTopology() {
+        return (Topology) topology.getSelectedItem();
+    }
+
+    /**
+     * Lowers the mines and cheats to the most the current board allows
+     */
+    private void clampFields() {
         var max = maxMines.getAsInt();
         if ((Integer) fieldMines.getValue() > max) {
             fieldMines.setValue(max);
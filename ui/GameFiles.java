@@ -0,0 +1,262 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.game.Game;
+import edu.wou.cs361.minesweeper.game.GameSnapshot;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.game.SaveIndex;
+import edu.wou.cs361.minesweeper.metrics.GameMetrics;
+import edu.wou.cs361.minesweeper.metrics.LoadGameEvent;
+import edu.wou.cs361.minesweeper.metrics.SaveGameEvent;
+
+import javax.swing.*;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Saves and loads games on a background thread, so the window keeps
+ * responding while large boards are written or read
+ * <br>
+ * A save captures a {@link GameSnapshot} on the game thread, which only copies
+ * the board into packed arrays, then writes it from the I/O thread while play
+ * carries on. The file is written beside the save and moved over it at the
+ * end, so a save that fails never leaves half a game behind. A load reads the
+ * whole game on the I/O thread and hands it to the event thread once it is
+ * ready. Progress is the share of bytes written or read so far, and every
+ * window sees it, along with the saves and loads waiting for the thread.
+ * <br>
+ * Saves go in the working directory, which is listed through a
+ * {@link SaveIndex} kept for the whole session.
+ */
+public class GameFiles {
+    // shared by every window, so a save keeps going when a new game opens
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "game-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // saves in the working directory, opened on the I/O thread when first listed
+    private static SaveIndex index;
+
+    // the running save or load and how many wait behind it, for the progress
+    // bar of every window, since they all share the one I/O thread
+    private static volatile String task;
+    private static volatile long done;
+    private static volatile long total;
+    private static final AtomicInteger WAITING = new AtomicInteger();
+
+    /**
+     * Saves a game. Games without a snapshot form are serialized on the game thread instead
+     *
+     * @param worker   Worker running the game, the snapshot is taken behind any queued clicks
+     * @param filename File to write, without the .bin extension
+     * @param finished Called on the event thread once the save ends, with the error if it failed
+     */
+    public void save(GameWorker worker, String filename, Consumer<IOException> finished) {
+        // counted from now, so the window shows the save waiting behind queued clicks or other saves
+        WAITING.incrementAndGet();
+        worker.submit(game -> {
+            if (!(game instanceof Game)) {
+                try {
+                    game.saveGame(filename);
+                } finally {
+                    WAITING.decrementAndGet();
+                }
+                SwingUtilities.invokeLater(() -> finished.accept(null));
+                return;
+            }
+            GameSnapshot snapshot;
+            try {
+                snapshot = GameSnapshot.capture((Game) game);
+            } catch (RuntimeException | Error e) {
+                WAITING.decrementAndGet();
+                throw e;
+            }
+            IO.execute(() -> {
+                WAITING.decrementAndGet();
+                var error = write(snapshot, Path.of(filename + ".bin"));
+                SwingUtilities.invokeLater(() -> finished.accept(error));
+            });
+        }, null);
+    }
+
+    /**
+     * Lists the saved games in the working directory, newest first
+     *
+     * @param finished Called on the event thread with the saves, or the error if the directory cannot be read
+     */
+    public void list(BiConsumer<List<SaveIndex.Entry>, IOException> finished) {
+        IO.execute(() -> {
+            List<SaveIndex.Entry> saves = null;
+            IOException error = null;
+            try {
+                if (index == null) {
+                    index = SaveIndex.open(Path.of("").toAbsolutePath());
+                }
+                saves = index.list();
+            } catch (IOException e) {
+                error = e;
+            }
+            var listed = saves;
+            var failed = error;
+            SwingUtilities.invokeLater(() -> finished.accept(listed, failed));
+        });
+    }
+
+    /**
+     * Loads a game
+     *
+     * @param file     File to read
+     * @param finished Called on the event thread once the load ends, with the game or the error
+     */
+    public void load(Path file, BiConsumer<IGame, IOException> finished) {
+        WAITING.incrementAndGet();
+        IO.execute(() -> {
+            WAITING.decrementAndGet();
+            IGame game = null;
+            IOException error = null;
+            try {
+                game = read(file);
+            } catch (IOException e) {
+                error = e;
+            }
+            var loaded = game;
+            var failed = error;
+            SwingUtilities.invokeLater(() -> finished.accept(loaded, failed));
+        });
+    }
+
+    /**
+     * Gets what the I/O thread is doing, for any window
+     *
+     * @return "Saving" or "Loading", or null if idle
+     */
+    public String getTask() {
+        return task;
+    }
+
+    /**
+     * Gets how far the running save or load is
+     *
+     * @return percent of the bytes done
+     */
+    public int getPercent() {
+        var total = GameFiles.total;
+        return total <= 0 ? 0 : (int) Math.min(100, done * 100 / total);
+    }
+
+    /**
+     * Gets the saves and loads from any window waiting to start
+     *
+     * @return number of saves and loads not yet started
+     */
+    public int getQueued() {
+        return WAITING.get();
+    }
+
+    /* Internal use */
+
+    private IOException write(GameSnapshot snapshot, Path file) {
+        var event = new SaveGameEvent();
+        event.begin();
+        var start = System.nanoTime();
+        var temp = file.resolveSibling(file.getFileName() + ".tmp");
+        begin("Saving", snapshot.size());
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(new CountingOutput(Files.newOutputStream(temp)), 1 << 16))) {
+                snapshot.write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // the save that was there is untouched, only the partial copy goes
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            return e;
+        } finally {
+            task = null;
+        }
+        GameMetrics.get().recordSave(System.nanoTime() - start, snapshot.size());
+        event.file = file.toString();
+        event.bytes = snapshot.size();
+        event.commit();
+        return null;
+    }
+
+    private IGame read(Path file) throws IOException {
+        var event = new LoadGameEvent();
+        event.begin();
+        var start = System.nanoTime();
+        var size = Files.size(file);
+        begin("Loading", size);
+        IGame game;
+        try (var in = new CountingInput(Files.newInputStream(file))) {
+            game = IGame.readGame(in);
+        } finally {
+            task = null;
+        }
+        GameMetrics.get().recordLoad(System.nanoTime() - start, size);
+        event.file = file.toString();
+        event.bytes = size;
+        event.commit();
+        return game;
+    }
+
+    private static void begin(String task, long total) {
+        GameFiles.done = 0;
+        GameFiles.total = total;
+        GameFiles.task = task;
+    }
+
+    /**
+     * Counts the bytes written for the progress bar
+     */
+    private static class CountingOutput extends FilterOutputStream {
+        CountingOutput(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            done += length;
+        }
+    }
+
+    /**
+     * Counts the bytes read for the progress bar
+     */
+    private static class CountingInput extends FilterInputStream {
+        CountingInput(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            var value = in.read();
+            if (value >= 0) {
+                done++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            var count = in.read(bytes, offset, length);
+            if (count > 0) {
+                done += count;
+            }
+            return count;
+        }
+    }
+}
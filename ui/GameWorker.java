@@ -0,0 +1,416 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.game.BoardChangeEvent;
+import edu.wou.cs361.minesweeper.game.Game;
+import edu.wou.cs361.minesweeper.game.GameJournal;
+import edu.wou.cs361.minesweeper.game.GameState;
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.metrics.ClickEvent;
+import edu.wou.cs361.minesweeper.model.Space;
+import edu.wou.cs361.minesweeper.stats.GameRecord;
+import edu.wou.cs361.minesweeper.stats.StatsStore;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs all game logic for a window on a single background thread
+ * <br>
+ * Clicks are queued in the order they are made and handled one at a time, so
+ * a large reveal never blocks the event thread. The change events the game
+ * sends are collected on the game thread and handed to the event thread,
+ * where any that arrived since the last repaint are shown together. Repaints
+ * are capped at {@link #FRAME_RATE} a second, so an operation that changes the
+ * board thousands of times a second never waits on Swing.
+ */
+public class GameWorker {
+    /**
+     * Most repaints a second
+     */
+    public static final int FRAME_RATE = 60;
+
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAME_RATE;
+
+    // data
+    private final IGame game;
+    private final MainUI gui;
+    private final ScheduledExecutorService executor;
+
+    // operations submitted but not finished, and when the current one started
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile long busySince;
+
+    // changed spaces waiting for the event thread, copied from the game as it
+    // changes so the event thread never reads the game itself, guarded by this
+    private List<BoardView.Update> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    private long lastFlush;
+    private final List<Runnable> pendingCallbacks = new ArrayList<>();
+    private final List<InputTrace> pendingTraces = new ArrayList<>();
+
+    // game state as of the last change
+    private volatile int remainingMines;
+    private volatile int cheats;
+    private volatile GameState state;
+
+    // autosave of the game, opened on the game thread
+    private volatile GameJournal journal;
+
+    // clicks and start time of the current game, only used on the game thread
+    private int clicks;
+    private long startedAt;
+
+    /**
+     * Creates a worker for a window
+     *
+     * @param game Game played in the window
+     * @param gui  Window showing the game
+     */
+    public GameWorker(IGame game, MainUI gui) {
+        this(game, gui, false);
+    }
+
+    /**
+     * Creates a worker for a window
+     *
+     * @param game     Game played in the window
+     * @param gui      Window showing the game
+     * @param restored Whether the game was loaded or recovered rather than
+     *                 started in this session, which keeps it out of the statistics
+     */
+    public GameWorker(IGame game, MainUI gui, boolean restored) {
+        this.game = game;
+        this.gui = gui;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "game-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.remainingMines = game.getRemainingMines();
+        this.cheats = game.getCheats();
+        this.state = GameState.of(game);
+        game.addBoardListener(this::boardChanged);
+        // its time started before this session, so only a new game or a restart counts
+        if (restored) {
+            skipRecord();
+        }
+    }
+
+    /**
+     * Queues a click on the board
+     *
+     * @param space  Space clicked
+     * @param action Type of click
+     */
+    public void click(Space space, IGame.ClickAction action) {
+        click(space, action, null);
+    }
+
+    /**
+     * Queues a click on the board, tracing it until the changes are painted
+     *
+     * @param space  Space clicked
+     * @param action Type of click
+     * @param trace  Trace started by the mouse release, or null
+     */
+    void click(Space space, IGame.ClickAction action, InputTrace trace) {
+        // started here so recordings include time spent waiting in the queue
+        var event = new ClickEvent();
+        event.begin();
+        submit(game -> {
+            if (!game.gameOver() && action != IGame.ClickAction.CHEAT) {
+                if (clicks++ == 0) {
+                    startedAt = System.nanoTime();
+                }
+            }
+            if (trace != null) {
+                trace.handling();
+            }
+            game.handleClick(space, action);
+            if (trace != null) {
+                trace.handled();
+                synchronized (this) {
+                    pendingTraces.add(trace);
+                }
+            }
+            event.action = action.name();
+            event.x = space.getX();
+            event.y = space.getY();
+            event.gameOver = game.gameOver();
+            event.commit();
+        }, action == IGame.ClickAction.CHEAT ? gui::updateCheat : null);
+    }
+
+    /**
+     * Queues any operation on the game
+     *
+     * @param operation Operation to run on the game thread
+     * @param done      Optional callback run on the event thread once the changes are shown
+     */
+    public void submit(Consumer<IGame> operation, Runnable done) {
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> run(operation, done));
+        } catch (RejectedExecutionException e) {
+            // the window closed, nothing runs on this game anymore
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Queues an operation to run after a delay, behind anything queued by then
+     *
+     * @param operation Operation to run on the game thread
+     * @param delay     Nanoseconds to wait
+     */
+    public void submitLater(Consumer<IGame> operation, long delay) {
+        try {
+            executor.schedule(() -> {
+                queued.incrementAndGet();
+                run(operation, null);
+            }, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // the window closed, nothing runs on this game anymore
+        }
+    }
+
+    /**
+     * Queues an operation that starts the board over, such as a new game or a
+     * restart, so the next click starts a new time for the statistics
+     *
+     * @param operation Operation to run on the game thread
+     * @param done      Optional callback run on the event thread once the changes are shown
+     */
+    public void reset(Consumer<IGame> operation, Runnable done) {
+        submit(game -> {
+            operation.accept(game);
+            clicks = 0;
+            startedAt = 0;
+        }, done);
+    }
+
+    /**
+     * Starts autosaving every move to a directory, replacing the autosave
+     * already there. Only a {@link Game} can be journaled, other games are not saved
+     *
+     * @param directory Directory for the autosave
+     */
+    public void autosave(Path directory) {
+        submit(game -> {
+            if (!(game instanceof Game)) {
+                return;
+            }
+            try {
+                journal = GameJournal.open(directory, (Game) game);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, null);
+    }
+
+    /**
+     * Keeps the current game out of the statistics, for games a program
+     * played part of. Called on the game thread
+     */
+    public void skipRecord() {
+        startedAt = 0;
+        clicks = Math.max(clicks, 1);
+    }
+
+    /**
+     * Checks how long the current operation has been running
+     *
+     * @return milliseconds the game thread has been busy, 0 if idle
+     */
+    public long busyMillis() {
+        var since = busySince;
+        return since == 0 ? 0 : (System.nanoTime() - since) / 1_000_000;
+    }
+
+    /**
+     * Gets the mines left as of the last change shown
+     *
+     * @return remaining mines
+     */
+    public int getRemainingMines() {
+        return remainingMines;
+    }
+
+    /**
+     * Gets the cheats left as of the last change shown
+     *
+     * @return remaining cheats
+     */
+    public int getCheats() {
+        return cheats;
+    }
+
+    /**
+     * Gets the number of operations waiting or running
+     *
+     * @return number of queued operations
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Stops the game thread, dropping any queued clicks, and commits the
+     * autosave up to the last click handled. The click running now can still
+     * journal moves, so the journal is closed in the background once the game
+     * thread has finished it
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        var journal = this.journal;
+        if (journal == null) {
+            return;
+        }
+        var closer = new Thread(() -> {
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "journal-close");
+        closer.start();
+    }
+
+    /* Internal use */
+
+    private void run(Consumer<IGame> operation, Runnable done) {
+        busySince = System.nanoTime();
+        try {
+            operation.accept(game);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            // a cheat can be used up without changing the board
+            cheats = game.getCheats();
+            publish(done);
+            busySince = 0;
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Collects a change event, called on the game thread
+     *
+     * @param event Changes made by one operation
+     */
+    private void boardChanged(BoardChangeEvent event) {
+        var update = BoardView.capture(game, event);
+        synchronized (this) {
+            // a whole board replaces everything still waiting
+            if (update.isWholeBoard()) {
+                pending.clear();
+            }
+            pending.add(update);
+            remainingMines = event.getRemainingMines();
+            state = event.getState();
+        }
+
+        if (event.getPreviousState() == GameState.PLAYING && event.getState() != GameState.PLAYING) {
+            record(event.getState() == GameState.WON);
+        }
+    }
+
+    /**
+     * Saves the result of the game that just ended, called on the game thread
+     *
+     * @param won Whether the player won
+     */
+    private void record(boolean won) {
+        // no click was counted, so there is no time to measure
+        if (startedAt == 0) {
+            return;
+        }
+        var millis = (int) Math.min(Integer.MAX_VALUE, (System.nanoTime() - startedAt) / 1_000_000);
+        var result = new GameRecord(System.currentTimeMillis(), millis, won, clicks, game.getBoardValue());
+        startedAt = 0;
+        try {
+            StatsStore.getDefault().record(StatsStore.key(game), result);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Schedules a repaint on the event thread once an operation finishes,
+     * unless one is already waiting to run. A repaint soon after the last one
+     * waits for the next frame, collecting everything that changes meanwhile
+     *
+     * @param done Optional callback to run after the repaint
+     */
+    private void publish(Runnable done) {
+        long wait;
+        synchronized (this) {
+            if (done != null) {
+                pendingCallbacks.add(done);
+            }
+            if (flushScheduled || (pending.isEmpty() && pendingCallbacks.isEmpty() && pendingTraces.isEmpty())) {
+                return;
+            }
+            flushScheduled = true;
+            wait = lastFlush + FRAME_NANOS - System.nanoTime();
+        }
+        if (wait > 0) {
+            try {
+                executor.schedule(() -> SwingUtilities.invokeLater(this::flush), wait, TimeUnit.NANOSECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // shut down while the operation ran, show its changes straight away
+            }
+        }
+        SwingUtilities.invokeLater(this::flush);
+    }
+
+    /**
+     * Shows every batch published since the last flush, on the event thread
+     */
+    private void flush() {
+        List<BoardView.Update> updates;
+        List<Runnable> callbacks;
+        List<InputTrace> traces;
+        synchronized (this) {
+            updates = pending;
+            pending = new ArrayList<>();
+            callbacks = new ArrayList<>(pendingCallbacks);
+            pendingCallbacks.clear();
+            traces = pendingTraces.isEmpty() ? List.of() : new ArrayList<>(pendingTraces);
+            pendingTraces.clear();
+            flushScheduled = false;
+            lastFlush = System.nanoTime();
+        }
+
+        for (var trace : traces) {
+            trace.updating();
+        }
+        gui.updateSpaces(updates, remainingMines);
+        if (!traces.isEmpty()) {
+            for (var trace : traces) {
+                trace.scheduled();
+            }
+            // Swing paints the repaints in a pass it queued during the update, so this runs once they are drawn
+            SwingUtilities.invokeLater(() -> traces.forEach(InputTrace::painted));
+        }
+        if (state != GameState.PLAYING) {
+            gui.gameOver(state == GameState.WON);
+        }
+        for (var callback : callbacks) {
+            callback.run();
+        }
+    }
+}
@@ -136,7 +136,10 @@ public class Help {
                     "Clicking the cheat button will allow you to safely click a space. "
                             + "If the space is a mine, it will mark it with a green mine, but you won't lose. "
                             + "If it is safe, it will act like clicking a normal space.",
-                    "Each edu.wou.cs361.minesweeper.game has limited cheats, so use sparingly."));
+                    "Each edu.wou.cs361.minesweeper.game has limited cheats, so use sparingly.", "",
+                    "The autoplay menu lets the computer play. Play starts and pauses it, step makes a single move, "
+                            + "and the speeds limit how many moves it makes a second. "
+                            + "Games the computer played are not counted in the best times."));
         }
     }
 
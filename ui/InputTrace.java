@@ -0,0 +1,95 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.metrics.GameMetrics;
+import edu.wou.cs361.minesweeper.metrics.InputLatencyEvent;
+
+import java.awt.event.MouseEvent;
+
+/**
+ * Timestamps of one click on its way from the mouse release to the screen
+ * <br>
+ * The button starts the trace when the mouse is released, the game thread
+ * stamps either side of {@code handleClick}, and the event thread stamps
+ * either side of {@code updateSpaces}, which schedules the repaints. Swing
+ * paints those repaints in one pass queued behind the update, so the trace
+ * is finished by a task queued right after it, which runs once the changed
+ * spaces are drawn and copied to the window. The total goes into
+ * {@link GameMetrics#recordInputLatency(long)} and the stages into an
+ * {@link InputLatencyEvent}.
+ */
+class InputTrace {
+    // data
+    private final IGame.ClickAction action;
+    private final InputLatencyEvent event = new InputLatencyEvent();
+    private final long released;
+    private final long received;
+
+    // stamped by the game thread, then read on the event thread after the flush hands it over
+    private long handling;
+    private long handled;
+
+    // stamped on the event thread
+    private long updating;
+    private long scheduled;
+
+    /**
+     * Starts a trace when the mouse is released
+     *
+     * @param e      Release event, its time is when the system saw the release
+     * @param action Type of click
+     */
+    InputTrace(MouseEvent e, IGame.ClickAction action) {
+        this.action = action;
+        event.begin();
+        received = System.nanoTime();
+        // event times are wall clock milliseconds, so only the difference can be used
+        var lag = Math.max(0, System.currentTimeMillis() - e.getWhen());
+        released = received - lag * 1_000_000;
+    }
+
+    /**
+     * Stamps the game thread starting the click
+     */
+    void handling() {
+        handling = System.nanoTime();
+    }
+
+    /**
+     * Stamps the game thread finishing the click
+     */
+    void handled() {
+        handled = System.nanoTime();
+    }
+
+    /**
+     * Stamps the event thread starting to update the spaces
+     */
+    void updating() {
+        updating = System.nanoTime();
+    }
+
+    /**
+     * Stamps the event thread having scheduled every repaint
+     */
+    void scheduled() {
+        scheduled = System.nanoTime();
+    }
+
+    /**
+     * Finishes the trace once the repaints are painted, on the event thread
+     */
+    void painted() {
+        var now = System.nanoTime();
+        GameMetrics.get().recordInputLatency(now - released);
+
+        event.action = action.name();
+        event.dispatch = received - released;
+        event.queued = handling - received;
+        event.handle = handled - handling;
+        event.delivery = updating - handled;
+        event.update = scheduled - updating;
+        event.paint = now - scheduled;
+        event.commit();
+    }
+}
@@ -1,8 +1,13 @@
 package edu.wou.cs361.minesweeper.ui;
 
 import edu.wou.cs361.minesweeper.Startup;
+import edu.wou.cs361.minesweeper.game.GameJournal;
 import edu.wou.cs361.minesweeper.game.IGame;
+import edu.wou.cs361.minesweeper.metrics.GameMetrics;
+import edu.wou.cs361.minesweeper.metrics.RepaintBatchEvent;
 import edu.wou.cs361.minesweeper.model.Space;
+import edu.wou.cs361.minesweeper.stats.Leaderboard;
+import edu.wou.cs361.minesweeper.stats.StatsStore;
 
 import javax.swing.*;
 import java.awt.*;
@@ -10,6 +15,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Main GUI object for Minesweeper game. Called game play is ready
@@ -17,6 +24,9 @@ import java.io.File;
 public class MainUI extends JFrame implements ActionListener {
     // data
     private IGame game;
+    private GameWorker worker;
+    private final GameFiles files = new GameFiles();
+    private Autoplayer autoplayer;
 
     // states
     private boolean isCheating;
@@ -24,10 +34,21 @@ public class MainUI extends JFrame implements ActionListener {
     // buttons and labels
     private JLabel mines;
     private MineButton[][] buttons;
+    private BoardView view;
+    private BoardPanel minesContainer;
+    private JScrollPane boardScroller;
+    private Minimap minimap;
 
     private JButton buttonNewGame;
     private JButton buttonCheat;
 
+    // shown while the game thread is busy with a long operation
+    private JProgressBar progress;
+    private Timer progressTimer;
+
+    // debug readout of the input latency, from a mouse release until the changes are painted
+    private JLabel latency;
+
     // menus
     private JMenuBar bar;
     private JMenu menuMinesweeper;
@@ -36,8 +57,15 @@ public class MainUI extends JFrame implements ActionListener {
     private JMenuItem buttonRestart;
     private JMenuItem buttonSave;
     private JMenuItem buttonLoad;
+    private JMenuItem buttonBestTimes;
+    private JCheckBoxMenuItem buttonMinimap;
+    private JCheckBoxMenuItem buttonLatency;
     private JMenuItem buttonExit;
 
+    private JMenu menuAutoplay;
+    private JCheckBoxMenuItem buttonAutoplay;
+    private JMenuItem buttonStep;
+
     private JMenu menuHelp;
     private JMenuItem buttonRules;
     private JMenuItem buttonMenu;
@@ -49,8 +77,23 @@ public class MainUI extends JFrame implements ActionListener {
      * @param game Input board, the display will take the size and pieces on the board
      */
     public MainUI(IGame game) {
+        this(game, false);
+    }
+
+    /**
+     * Makes a new minesweeper window
+     *
+     * @param game     Input board, the display will take the size and pieces on the board
+     * @param restored Whether the game was loaded or recovered, so finishing it sets no record
+     */
+    public MainUI(IGame game, boolean restored) {
         this.setTitle("Minesweeper");
         this.game = game;
+        // copied before the game thread starts, afterwards only the worker reads the game
+        this.view = new BoardView(game);
+        this.worker = new GameWorker(game, this, restored);
+        worker.autosave(GameJournal.defaultDirectory());
+        this.autoplayer = new Autoplayer(game, worker, () -> buttonAutoplay.setSelected(false));
 
         // construct the top menu
         bar = new JMenuBar();
@@ -85,12 +128,51 @@ public class MainUI extends JFrame implements ActionListener {
         buttonLoad.addActionListener(this);
         menuMinesweeper.add(buttonLoad);
 
+        // shows the best times for this board size
+        buttonBestTimes = new JMenuItem("Best Times");
+        buttonBestTimes.addActionListener(this);
+        menuMinesweeper.add(buttonBestTimes);
+
+        // overview of the whole board, on by default once the board scrolls
+        buttonMinimap = new JCheckBoxMenuItem("Minimap");
+        buttonMinimap.addActionListener(this);
+        menuMinesweeper.add(buttonMinimap);
+
+        // median and slowest input latency, for spotting rendering or engine regressions
+        buttonLatency = new JCheckBoxMenuItem("Input Latency");
+        buttonLatency.addActionListener(this);
+        menuMinesweeper.add(buttonLatency);
+
         // exits the edu.wou.cs361.minesweeper.game
         menuMinesweeper.addSeparator();
         buttonExit = new JMenuItem("Exit");
         buttonExit.addActionListener(this);
         menuMinesweeper.add(buttonExit);
 
+        // solver playing the game
+        menuAutoplay = new JMenu("Autoplay");
+        bar.add(menuAutoplay);
+
+        // starts and pauses the player
+        buttonAutoplay = new JCheckBoxMenuItem("Play");
+        buttonAutoplay.addActionListener(this);
+        menuAutoplay.add(buttonAutoplay);
+
+        // makes a single move
+        buttonStep = new JMenuItem("Step");
+        buttonStep.addActionListener(this);
+        menuAutoplay.add(buttonStep);
+
+        // speed limits, 0 for as fast as the game thread goes
+        menuAutoplay.addSeparator();
+        var speeds = new ButtonGroup();
+        for (var speed : new int[]{0, 100, 20, 5}) {
+            var item = new JRadioButtonMenuItem(speed == 0 ? "Unlimited" : speed + " moves/s", speed == 0);
+            item.addActionListener(e -> autoplayer.setMovesPerSecond(speed));
+            speeds.add(item);
+            menuAutoplay.add(item);
+        }
+
         // help menu
         menuHelp = new JMenu("Help");
         bar.add(menuHelp);
@@ -133,7 +215,7 @@ public class MainUI extends JFrame implements ActionListener {
         top.add(buttonNewGame);
 
         // cheating, skip if 0 cheats to start
-        if (game.canCheat()) {
+        if (worker.getCheats() > 0) {
             buttonCheat = new JButton();
             updateCheat();
             buttonCheat.addActionListener(this);
@@ -147,28 +229,56 @@ public class MainUI extends JFrame implements ActionListener {
         pane.add(top, BorderLayout.NORTH);
 
         // main button grid
-        var minesContainer = new Container();
         int width2 = game.getWidth();
         int height2 = game.getHeight();
-        minesContainer.setLayout(new GridLayout(height2, width2));
+        minesContainer = new BoardPanel(width2, height2, game.getTopology());
         buttons = new MineButton[height2][width2];
 
         // and add them all
         for (var y = 0; y < height2; y++) {
             for (var x = 0; x < width2; x++) {
                 // add buttons, and store them
-                buttons[y][x] = new MineButton(this, game, new Space(x, y));
+                buttons[y][x] = new MineButton(this, view, new Space(x, y));
                 minesContainer.add(buttons[y][x]);
             }
         }
 
-        pane.add(minesContainer, BorderLayout.CENTER);
+        boardScroller = new JScrollPane(minesContainer);
+        boardScroller.setBorder(null);
+        pane.add(boardScroller, BorderLayout.CENTER);
+
+        minimap = new Minimap(view, boardScroller.getViewport());
+        pane.add(minimap, BorderLayout.EAST);
+
+        // progress for long operations, only shown once one takes a noticeable time
+        progress = new JProgressBar();
+        progress.setIndeterminate(true);
+        progress.setStringPainted(true);
+        progress.setVisible(false);
+        latency = new JLabel();
+        latency.setFont(new Font(Font.MONOSPACED, Font.PLAIN, latency.getFont().getSize()));
+        latency.setBorder(BorderFactory.createEmptyBorder(0, 4, 0, 4));
+        latency.setVisible(false);
+        var bottom = new JPanel(new BorderLayout());
+        bottom.add(progress, BorderLayout.CENTER);
+        bottom.add(latency, BorderLayout.EAST);
+        pane.add(bottom, BorderLayout.SOUTH);
+        progressTimer = new Timer(100, e -> {
+            updateProgress();
+            updateLatency();
+        });
+        progressTimer.start();
 
         // sizes, we need them for the top bar
         var width = game.getWidth() * 40;
         var height = game.getHeight() * 40 + 100;
 
-        setSize(width, height);
+        // large boards open at the size of the screen and scroll
+        var screen = Toolkit.getDefaultToolkit().getScreenSize();
+        setSize(Math.min(width, screen.width), Math.min(height, screen.height));
+        var scrolls = width > screen.width || height > screen.height;
+        buttonMinimap.setSelected(scrolls);
+        minimap.setVisible(scrolls);
         setVisible(true);
 
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -188,26 +298,127 @@ public class MainUI extends JFrame implements ActionListener {
     }
 
     /**
-     * Updates all spaces pending update to display their current value
+     * Queues a click to be handled on the game thread
+     *
+     * @param space  Space clicked
+     * @param action Type of click
      */
-    public void updateSpaces() {
-        var queue = game.getUpdates();
-        while (!queue.isEmpty()) {
-            var space = queue.poll();
-            var update = getButton(space);
-            if (update != null) {
-                update.updatePiece();
+    public void click(Space space, IGame.ClickAction action) {
+        worker.click(space, action);
+    }
+
+    /**
+     * Queues a click to be handled on the game thread, tracing its latency
+     * until the changed spaces are painted
+     *
+     * @param space  Space clicked
+     * @param action Type of click
+     * @param trace  Trace started by the mouse release
+     */
+    void click(Space space, IGame.ClickAction action, InputTrace trace) {
+        worker.click(space, action, trace);
+    }
+
+    /**
+     * Updates the changed spaces to display their current value. Called on the
+     * event thread with every update published since the last call
+     *
+     * @param updates        Changed spaces copied from the game
+     * @param remainingMines Remaining mines after the changes
+     */
+    public void updateSpaces(List<BoardView.Update> updates, int remainingMines) {
+        var event = new RepaintBatchEvent();
+        event.begin();
+
+        // a whole-board update covers everything before it, so start from the last one
+        var first = 0;
+        for (var i = updates.size() - 1; i >= 0; i--) {
+            if (updates.get(i).isWholeBoard()) {
+                first = i;
+                break;
             }
         }
 
-        updateMines();
+        // a hidden minimap reloads when it is shown again
+        var tracking = minimap.isVisible();
+        var width = view.getWidth();
+        for (var update : updates.subList(first, updates.size())) {
+            view.apply(update);
+            var cells = update.getCellCount();
+            for (var i = 0; i < cells; i++) {
+                var index = update.getIndex(i);
+                buttons[index / width][index % width].updatePiece();
+                if (tracking) {
+                    minimap.cellChanged(index);
+                }
+            }
+            event.cells += cells;
+
+            // the buttons show the revealed mines as they paint, so only the visible ones do any work
+            if (update.size() > cells) {
+                minesContainer.repaint();
+                if (tracking) {
+                    for (var i = cells; i < update.size(); i++) {
+                        minimap.cellChanged(update.getIndex(i));
+                    }
+                }
+            }
+        }
+        if (tracking) {
+            minimap.flush();
+        }
+
+        mines.setText(String.format("Mines: %d", remainingMines));
+        event.commit();
+    }
+
+    /**
+     * Shows the progress bar while the game thread is stuck on a long operation
+     */
+    private void updateProgress() {
+        var queued = worker.getQueued();
+        var task = files.getTask();
+        if (task != null) {
+            progress.setIndeterminate(false);
+            progress.setValue(files.getPercent());
+            var waiting = files.getQueued();
+            progress.setString(task + "... " + files.getPercent() + "%" + (waiting > 0 ? ", " + waiting + " more waiting" : ""));
+            progress.setVisible(true);
+            return;
+        }
+        progress.setIndeterminate(true);
+        if (files.getQueued() > 0) {
+            // another window's save or load has the disk, or the snapshot is still being taken
+            progress.setString("Waiting to save or load...");
+            progress.setVisible(true);
+            return;
+        }
+        if (worker.busyMillis() > 200) {
+            progress.setString(queued > 1 ? "Working... " + (queued - 1) + " clicks queued" : "Working...");
+            progress.setVisible(true);
+        } else if (queued == 0 && progress.isVisible()) {
+            progress.setVisible(false);
+        }
+    }
+
+    /**
+     * Shows the median and 99th percentile input latency, if turned on
+     */
+    private void updateLatency() {
+        if (!latency.isVisible()) {
+            return;
+        }
+        var metrics = GameMetrics.get();
+        latency.setText(String.format("Input p50 %.1f ms  p99 %.1f ms  (%d)",
+                metrics.getInputLatencyP50Micros() / 1000, metrics.getInputLatencyP99Micros() / 1000,
+                metrics.getInputLatencyCount()));
     }
 
     /**
      * Updates the mines display
      */
     public void updateMines() {
-        mines.setText(String.format("Mines: %d", game.getRemainingMines()));
+        mines.setText(String.format("Mines: %d", worker.getRemainingMines()));
     }
 
     /**
@@ -215,8 +426,8 @@ public class MainUI extends JFrame implements ActionListener {
      */
     public void updateCheat() {
         // if we can cheat, set the label
-        if (game.canCheat()) {
-            buttonCheat.setText("Cheats: " + game.getCheats());
+        if (worker.getCheats() > 0) {
+            buttonCheat.setText("Cheats: " + worker.getCheats());
             buttonCheat.setEnabled(true);
         }
 
@@ -230,7 +441,6 @@ public class MainUI extends JFrame implements ActionListener {
         buttonNewGame.setText("New Game");
 
         updateCheat();
-        updateSpaces();
     }
 
     /**
@@ -272,6 +482,47 @@ public class MainUI extends JFrame implements ActionListener {
         }
     }
 
+    /**
+     * Shows the totals and fastest wins for the size of this board
+     */
+    private void showBestTimes() {
+        Leaderboard leaderboard;
+        try {
+            leaderboard = StatsStore.getDefault().leaderboard(StatsStore.key(game), 10);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Error reading statistics: " + e.getMessage(),
+                    "MineSweeper - Best Times",
+                    JOptionPane.ERROR_MESSAGE
+            );
+            return;
+        }
+
+        var text = new StringBuilder(String.format("%dx%d, %d mines%n", game.getWidth(), game.getHeight(), game.getMineCount()));
+        text.append(String.format("Played: %d  Won: %d%n%n", leaderboard.getPlayed(), leaderboard.getWon()));
+        var place = 1;
+        for (var record : leaderboard.getBest()) {
+            text.append(String.format("%2d. %.3fs  %d clicks  3BV %d  %tF%n", place++, record.getMillis() / 1000.0,
+                    record.getClicks(), record.getBoardValue(), record.getTimestamp()));
+        }
+        if (leaderboard.getBest().isEmpty()) {
+            text.append("No wins yet");
+        }
+
+        JOptionPane.showMessageDialog(this, text.toString(), "MineSweeper - Best Times", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * Closes the window and stops its game thread
+     */
+    @Override
+    public void dispose() {
+        progressTimer.stop();
+        autoplayer.pause();
+        worker.shutdown();
+        super.dispose();
+    }
+
     /**
      * Called when the 'X' button is pressed on the window
      *
@@ -293,21 +544,15 @@ public class MainUI extends JFrame implements ActionListener {
 
         // restart the current edu.wou.cs361.minesweeper.game
         if (button == buttonNewGame) {
-            // make the board new
-            game.newGame();
-
-            // and clear edu.wou.cs361.minesweeper.game data
-            resetButtons();
+            // make the board new, and clear edu.wou.cs361.minesweeper.game data once it shows
+            worker.reset(IGame::newGame, this::resetButtons);
             return;
         }
 
         // restart the current edu.wou.cs361.minesweeper.game
         if (button == buttonRestart) {
-            // make the board new
-            game.restart();
-
-            // and clear edu.wou.cs361.minesweeper.game data
-            resetButtons();
+            // make the board new, and clear edu.wou.cs361.minesweeper.game data once it shows
+            worker.reset(IGame::restart, this::resetButtons);
             return;
         }
 
@@ -338,50 +583,104 @@ public class MainUI extends JFrame implements ActionListener {
                 }
             }
 
-            game.saveGame(filename);
+            // captured on the game thread, so it waits for queued clicks and never sees a
+            // half made move, then written in the background while play carries on
+            files.save(worker, filename, error -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this,
+                            "Error writing save game " + filename + ": " + error.getMessage(),
+                            "MineSweeper - Save game",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            });
         }
 
         // loads the edu.wou.cs361.minesweeper.game
         if (button == buttonLoad) {
-            var filename = JOptionPane.showInputDialog(this,
-                    "Enter filename to load game",
-                    "MineSweeper - Load game",
-                    JOptionPane.QUESTION_MESSAGE
-            );
-
-            // user canceled
-            if (filename == null || filename.equals("")) {
-                return;
-            }
-
-            // if it exists, prompt to continue
-            if (new File(filename + ".bin").exists()) {
-                var board = (IGame) IGame.loadGame(filename);
-                if (board != null) {
-                    Startup.startGame(board);
-                }
-                // did not load right
-                else {
+            // the saves are described from their headers, then the one picked is read in the background
+            files.list((saves, listError) -> {
+                if (saves == null) {
                     JOptionPane.showMessageDialog(this,
-                            "Error reading save game " + filename,
+                            "Error listing saved games: " + listError.getMessage(),
                             "MineSweeper - Load game",
                             JOptionPane.ERROR_MESSAGE
                     );
+                    return;
+                }
+                if (saves.isEmpty()) {
+                    JOptionPane.showMessageDialog(this,
+                            "There are no saved games",
+                            "MineSweeper - Load game",
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
+                    return;
                 }
+
+                var save = SaveBrowser.choose(this, saves);
+                // user canceled
+                if (save == null) {
+                    return;
+                }
+                files.load(save.getFile(), (board, error) -> {
+                    if (board != null) {
+                        Startup.startGame(board, true);
+                    }
+                    // did not load right
+                    else {
+                        JOptionPane.showMessageDialog(this,
+                                "Error reading save game " + save.getName() + ": " + error.getMessage(),
+                                "MineSweeper - Load game",
+                                JOptionPane.ERROR_MESSAGE
+                        );
+                    }
+                });
+            });
+        }
+
+        // autoplay
+        if (button == buttonAutoplay) {
+            if (buttonAutoplay.isSelected()) {
+                autoplayer.start();
             } else {
-                // file does not exist
-                JOptionPane.showMessageDialog(this,
-                        "Saved game " + filename + " does not exist",
-                        "MineSweeper - Load game",
-                        JOptionPane.ERROR_MESSAGE
-                );
+                autoplayer.pause();
             }
+            return;
+        }
+        if (button == buttonStep) {
+            buttonAutoplay.setSelected(false);
+            autoplayer.step();
+            return;
+        }
+
+        // minimap
+        if (button == buttonMinimap) {
+            if (buttonMinimap.isSelected()) {
+                minimap.reload();
+            }
+            minimap.setVisible(buttonMinimap.isSelected());
+            revalidate();
+            return;
+        }
+
+        // input latency readout
+        if (button == buttonLatency) {
+            latency.setVisible(buttonLatency.isSelected());
+            updateLatency();
+            revalidate();
+            return;
+        }
+
+        // best times
+        if (button == buttonBestTimes) {
+            showBestTimes();
+            return;
         }
 
         // cheat button
         if (button == buttonCheat) {
             // no cheating too many times
-            if (!game.canCheat()) {
+            if (worker.getCheats() <= 0) {
                 return;
             }
 
@@ -16,21 +16,23 @@ public class MineButton extends JButton implements MouseListener {
     // determines if the mouse is over this button
     boolean inArea;
     private MainUI gui;
-    private IGame board;
+    private BoardView view;
     private Space space;
+    private int index;
 
     /**
      * Creates a new button
      *
      * @param gui   GUI object containing the button
-     * @param board Board object containing the space
+     * @param view  Copy of the board the button shows, never the live game
      * @param space Location of the button on the board
      */
-    public MineButton(MainUI gui, IGame board, Space space) {
+    public MineButton(MainUI gui, BoardView view, Space space) {
         // data storage
         this.gui = gui;
-        this.board = board;
+        this.view = view;
         this.space = space;
+        this.index = space.getY() * view.getWidth() + space.getX();
 
         // fix odd spacing around the image
         this.setMargin(new Insets(0, 0, 0, 0));
@@ -53,12 +55,12 @@ public class MineButton extends JButton implements MouseListener {
         super.paint(g);
 
         // safety
-        if (board == null) {
+        if (view == null) {
             return;
         }
 
         // determine what we are drawing
-        var piece = board.getPiece(space);
+        var piece = view.getPiece(index);
         if (piece != null && piece.getIcon() != null) {
             // calculate the position of the icon
 
@@ -88,11 +90,11 @@ public class MineButton extends JButton implements MouseListener {
      * Updates piece
      */
     public void updatePiece() {
-        if (board == null) {
+        if (view == null) {
             return;
         }
 
-        setEnabled(board.isEnabled(space));
+        setEnabled(view.isEnabled(index));
 
         repaint();
     }
@@ -152,22 +154,11 @@ public class MineButton extends JButton implements MouseListener {
         }
 
 
-        // if we have an action (no middle click), click it
+        // if we have an action (no middle click), queue it for the game thread
+        // which updates the spaces and win status once it is handled, timing
+        // it from the release until the changes are painted
         if (action != null) {
-            board.handleClick(this.getSpace(), action);
-
-            // update spaces on the board
-            gui.updateSpaces();
-
-            // if we are out of cheats, mark that
-            if (action == IGame.ClickAction.CHEAT) {
-                gui.updateCheat();
-            }
-        }
-
-        // set the win status if relevant
-        if (board.gameOver()) {
-            gui.gameOver(board.hasWon());
+            gui.click(this.getSpace(), action, new InputTrace(e, action));
         }
     }
 
@@ -0,0 +1,287 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.model.Piece;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Overview of the whole board that moves the main view when clicked
+ * <br>
+ * The overview is an image pyramid. Each pixel of the finest level sums up a
+ * square block of spaces by how many are covered, revealed, flagged or mines,
+ * and each coarser level averages four pixels of the one below. A change to a
+ * space only recolors its block and the pixels above it, so keeping the
+ * overview current costs nothing like redrawing the board. Painting scales the
+ * level closest to the size on screen.
+ */
+public class Minimap extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    // space categories, and the color of each
+    private static final byte COVERED = 0;
+    private static final byte REVEALED = 1;
+    private static final byte FLAGGED = 2;
+    private static final byte MINE = 3;
+    private static final int[] COLORS = {0x8C8C8C, 0xE6E6E6, 0xD83030, 0x202020};
+
+    // longest side of the finest level, and of the coarsest
+    private static final int FINEST = 512;
+    private static final int COARSEST = 16;
+
+    // preferred size of the longest side on screen
+    private static final int SIZE = 200;
+
+    // data
+    private final BoardView view;
+    private final JViewport viewport;
+    private final int width, height;
+    private final int block;
+    private final byte[] cells;
+
+    // counts per category of every finest pixel, four ints per pixel
+    private final int[] counts;
+
+    // pyramid, finest first, with the pixels of each image written directly
+    private final BufferedImage[] levels;
+    private final int[][] pixels;
+
+    // pixels to recolor at each level before the next paint
+    private final int[][] dirty;
+    private final int[] dirtyCount;
+    private final boolean[][] isDirty;
+
+    // where the board was last drawn, to turn clicks into spaces
+    private final Rectangle drawn = new Rectangle();
+
+    /**
+     * Creates a minimap of a board
+     *
+     * @param view     Copy of the board to show
+     * @param viewport View of the main board, moved by clicks
+     */
+    public Minimap(BoardView view, JViewport viewport) {
+        this.view = view;
+        this.viewport = viewport;
+        this.width = view.getWidth();
+        this.height = view.getHeight();
+        this.block = Math.max(1, (Math.max(width, height) + FINEST - 1) / FINEST);
+        this.cells = new byte[width * height];
+
+        // levels halve until the longest side is small
+        var levelCount = 1;
+        for (var side = Math.max(width, height) / block; side > COARSEST; side = (side + 1) / 2) {
+            levelCount++;
+        }
+        levels = new BufferedImage[levelCount];
+        pixels = new int[levelCount][];
+        dirty = new int[levelCount][];
+        dirtyCount = new int[levelCount];
+        isDirty = new boolean[levelCount][];
+        var levelWidth = (width + block - 1) / block;
+        var levelHeight = (height + block - 1) / block;
+        for (var level = 0; level < levelCount; level++) {
+            levels[level] = new BufferedImage(levelWidth, levelHeight, BufferedImage.TYPE_INT_RGB);
+            pixels[level] = ((DataBufferInt) levels[level].getRaster().getDataBuffer()).getData();
+            dirty[level] = new int[64];
+            isDirty[level] = new boolean[levelWidth * levelHeight];
+            levelWidth = (levelWidth + 1) / 2;
+            levelHeight = (levelHeight + 1) / 2;
+        }
+        counts = new int[pixels[0].length * 4];
+        reload();
+
+        var ratio = (double) height / width;
+        setPreferredSize(ratio > 1
+                ? new Dimension((int) Math.max(COARSEST, SIZE / ratio), SIZE)
+                : new Dimension(SIZE, (int) Math.max(COARSEST, SIZE * ratio)));
+
+        // moves the main view, dragging keeps following the mouse
+        var mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                moveView(e.getPoint());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                moveView(e.getPoint());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        viewport.addChangeListener(e -> repaint());
+    }
+
+    /**
+     * Reads a space again after it changed. The image is updated by {@link #flush()}
+     *
+     * @param index Cell index, y * width + x
+     */
+    public void cellChanged(int index) {
+        var category = category(view.getPiece(index));
+        var old = cells[index];
+        if (old == category) {
+            return;
+        }
+        cells[index] = category;
+        var pixel = pixel(index);
+        counts[pixel * 4 + old]--;
+        counts[pixel * 4 + category]++;
+        markDirty(0, pixel);
+    }
+
+    /**
+     * Reads every space again, for when the minimap was not following changes
+     */
+    public void reload() {
+        Arrays.fill(counts, 0);
+        for (var index = 0; index < cells.length; index++) {
+            var category = category(view.getPiece(index));
+            cells[index] = category;
+            counts[pixel(index) * 4 + category]++;
+        }
+        for (var pixel = 0; pixel < pixels[0].length; pixel++) {
+            markDirty(0, pixel);
+        }
+        flush();
+    }
+
+    /**
+     * Recolors the pixels of every changed block and the levels above them, then repaints
+     */
+    public void flush() {
+        if (dirtyCount[0] == 0) {
+            return;
+        }
+        for (var level = 0; level < levels.length; level++) {
+            var list = dirty[level];
+            for (var i = 0; i < dirtyCount[level]; i++) {
+                var pixel = list[i];
+                isDirty[level][pixel] = false;
+                pixels[level][pixel] = level == 0 ? blockColor(pixel) : averageColor(level, pixel);
+                if (level + 1 < levels.length) {
+                    var levelWidth = levels[level].getWidth();
+                    var parentWidth = levels[level + 1].getWidth();
+                    markDirty(level + 1, (pixel / levelWidth / 2) * parentWidth + (pixel % levelWidth / 2));
+                }
+            }
+            dirtyCount[level] = 0;
+        }
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // coarsest level still at least as large as the space on screen
+        var level = levels.length - 1;
+        while (level > 0 && (levels[level].getWidth() < getWidth() && levels[level].getHeight() < getHeight())) {
+            level--;
+        }
+
+        // largest rectangle with the board's shape, centered
+        var scale = Math.min((double) getWidth() / width, (double) getHeight() / height);
+        drawn.width = Math.max(1, (int) (width * scale));
+        drawn.height = Math.max(1, (int) (height * scale));
+        drawn.x = (getWidth() - drawn.width) / 2;
+        drawn.y = (getHeight() - drawn.height) / 2;
+
+        var g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.drawImage(levels[level], drawn.x, drawn.y, drawn.width, drawn.height, null);
+
+        // part of the board in the main view
+        var view = viewport.getViewRect();
+        var size = viewport.getViewSize();
+        if (size.width > 0 && size.height > 0) {
+            g2.setColor(Color.YELLOW);
+            g2.drawRect(drawn.x + (int) ((long) view.x * drawn.width / size.width),
+                    drawn.y + (int) ((long) view.y * drawn.height / size.height),
+                    Math.max(2, (int) ((long) view.width * drawn.width / size.width) - 1),
+                    Math.max(2, (int) ((long) view.height * drawn.height / size.height) - 1));
+        }
+    }
+
+    /* Internal use */
+
+    private static byte category(Piece piece) {
+        if (piece == null || piece.isMark()) {
+            return COVERED;
+        }
+        if (piece == Piece.FLAG || piece == Piece.FLAG_NOT) {
+            return FLAGGED;
+        }
+        return piece.isNumber() ? REVEALED : MINE;
+    }
+
+    private int pixel(int index) {
+        return (index / width / block) * levels[0].getWidth() + (index % width / block);
+    }
+
+    private void markDirty(int level, int pixel) {
+        if (isDirty[level][pixel]) {
+            return;
+        }
+        isDirty[level][pixel] = true;
+        if (dirtyCount[level] == dirty[level].length) {
+            dirty[level] = Arrays.copyOf(dirty[level], dirtyCount[level] * 2);
+        }
+        dirty[level][dirtyCount[level]++] = pixel;
+    }
+
+    /**
+     * Color of a finest pixel, the category colors weighted by their counts
+     */
+    private int blockColor(int pixel) {
+        int red = 0, green = 0, blue = 0, total = 0;
+        for (var category = 0; category < COLORS.length; category++) {
+            var count = counts[pixel * 4 + category];
+            red += count * (COLORS[category] >> 16 & 0xFF);
+            green += count * (COLORS[category] >> 8 & 0xFF);
+            blue += count * (COLORS[category] & 0xFF);
+            total += count;
+        }
+        return total == 0 ? 0 : (red / total) << 16 | (green / total) << 8 | (blue / total);
+    }
+
+    /**
+     * Color of a coarser pixel, the average of the up to four pixels below it
+     */
+    private int averageColor(int level, int pixel) {
+        var below = levels[level - 1];
+        var x = pixel % levels[level].getWidth() * 2;
+        var y = pixel / levels[level].getWidth() * 2;
+        int red = 0, green = 0, blue = 0, total = 0;
+        for (var dy = 0; dy < 2 && y + dy < below.getHeight(); dy++) {
+            for (var dx = 0; dx < 2 && x + dx < below.getWidth(); dx++) {
+                var color = pixels[level - 1][(y + dy) * below.getWidth() + x + dx];
+                red += color >> 16 & 0xFF;
+                green += color >> 8 & 0xFF;
+                blue += color & 0xFF;
+                total++;
+            }
+        }
+        return (red / total) << 16 | (green / total) << 8 | (blue / total);
+    }
+
+    /**
+     * Centers the main view on the space under a point of the minimap
+     */
+    private void moveView(Point point) {
+        if (drawn.width == 0 || drawn.height == 0) {
+            return;
+        }
+        var size = viewport.getViewSize();
+        var extent = viewport.getExtentSize();
+        var x = (int) ((long) (point.x - drawn.x) * size.width / drawn.width) - extent.width / 2;
+        var y = (int) ((long) (point.y - drawn.y) * size.height / drawn.height) - extent.height / 2;
+        x = Math.max(0, Math.min(x, size.width - extent.width));
+        y = Math.max(0, Math.min(y, size.height - extent.height));
+        viewport.setViewPosition(new Point(x, y));
+    }
+}
@@ -0,0 +1,159 @@
+package edu.wou.cs361.minesweeper.ui;
+
+import edu.wou.cs361.minesweeper.game.SaveIndex;
+import edu.wou.cs361.minesweeper.game.SaveInfo;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Lists saved games with their size, mines left, progress, date and a
+ * thumbnail, all from the save headers, to pick one to load
+ */
+public class SaveBrowser extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    // thumbnail colors, the same as the minimap
+    private static final int[] COLORS = {0x8C8C8C, 0xE6E6E6, 0xD83030, 0x202020};
+
+    // thumbnails are drawn at this size
+    private static final int THUMBNAIL = 64;
+
+    // data
+    private final JList<SaveIndex.Entry> list;
+
+    /**
+     * Creates a browser of saves
+     *
+     * @param saves Saves to list, newest first
+     */
+    public SaveBrowser(List<SaveIndex.Entry> saves) {
+        super(new BorderLayout());
+        list = new JList<>(saves.toArray(new SaveIndex.Entry[0]));
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new SaveRenderer());
+        list.setVisibleRowCount(5);
+        // fixed rows, so a long list never renders every save to measure it
+        list.setFixedCellHeight(THUMBNAIL + 8);
+        list.setFixedCellWidth(THUMBNAIL + 320);
+        if (!saves.isEmpty()) {
+            list.setSelectedIndex(0);
+        }
+        add(new JScrollPane(list), BorderLayout.CENTER);
+    }
+
+    /**
+     * Shows the browser in a dialog
+     *
+     * @param parent Window to show the dialog over
+     * @param saves  Saves to list, newest first
+     * @return the save picked, or null if canceled
+     */
+    public static SaveIndex.Entry choose(Component parent, List<SaveIndex.Entry> saves) {
+        var browser = new SaveBrowser(saves);
+        var pane = new JOptionPane(browser, JOptionPane.PLAIN_MESSAGE, JOptionPane.OK_CANCEL_OPTION);
+        var dialog = pane.createDialog(parent, "MineSweeper - Load game");
+        dialog.setResizable(true);
+
+        // a double click loads straight away
+        browser.list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent event) {
+                if (event.getClickCount() == 2 && browser.list.getSelectedValue() != null) {
+                    pane.setValue(JOptionPane.OK_OPTION);
+                }
+            }
+        });
+        dialog.setVisible(true);
+        dialog.dispose();
+
+        var result = pane.getValue();
+        if (!Integer.valueOf(JOptionPane.OK_OPTION).equals(result)) {
+            return null;
+        }
+        return browser.list.getSelectedValue();
+    }
+
+    /* Internal use */
+
+    private static String describe(SaveIndex.Entry save) {
+        var date = String.format("%tF %<tR", save.getModified());
+        var info = save.getInfo();
+        if (info == null) {
+            return "<html><b>" + escape(save.getName()) + "</b><br>Older save, no details<br>" + date + "</html>";
+        }
+
+        String state;
+        if (!info.isStarted()) {
+            state = "Not started";
+        } else {
+            switch (info.getState()) {
+                case WON:
+                    state = "Won";
+                    break;
+                case LOST:
+                    state = "Lost";
+                    break;
+                default:
+                    state = info.getProgress() < 0 ? "Playing"
+                            : String.format("%.0f%% cleared", info.getProgress() * 100);
+                    break;
+            }
+        }
+        return String.format("<html><b>%s</b><br>%dx%d %s, %d mines, %d left<br>%s, %s</html>",
+                escape(save.getName()), info.getWidth(), info.getHeight(), info.getTopology(),
+                info.getMineCount(), info.getRemainingMines(), state, date);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;");
+    }
+
+    private static Icon thumbnail(SaveInfo info) {
+        var image = new BufferedImage(THUMBNAIL, THUMBNAIL, BufferedImage.TYPE_INT_RGB);
+        if (info == null || !info.hasThumbnail()) {
+            var g = image.createGraphics();
+            g.setColor(new Color(COLORS[SaveInfo.COVERED]));
+            g.fillRect(0, 0, THUMBNAIL, THUMBNAIL);
+            g.dispose();
+            return new ImageIcon(image);
+        }
+
+        // nearest pixel, keeping the board's shape inside the square
+        var scale = (double) THUMBNAIL / Math.max(info.getThumbnailWidth(), info.getThumbnailHeight());
+        var drawnWidth = (int) (info.getThumbnailWidth() * scale);
+        var drawnHeight = (int) (info.getThumbnailHeight() * scale);
+        var left = (THUMBNAIL - drawnWidth) / 2;
+        var top = (THUMBNAIL - drawnHeight) / 2;
+        for (var y = 0; y < drawnHeight; y++) {
+            for (var x = 0; x < drawnWidth; x++) {
+                var category = info.getThumbnail((int) (x / scale), (int) (y / scale));
+                image.setRGB(left + x, top + y, COLORS[category]);
+            }
+        }
+        return new ImageIcon(image);
+    }
+
+    /**
+     * Draws a save as its thumbnail and description
+     */
+    private static class SaveRenderer extends DefaultListCellRenderer {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            var save = (SaveIndex.Entry) value;
+            setText(describe(save));
+            setIcon(thumbnail(save.getInfo()));
+            setIconTextGap(8);
+            setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+            return this;
+        }
+    }
+}